@@ -0,0 +1,230 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.platformutil.io;
+
+import com.sun.istack.internal.NotNull;
+import org.apache.commons.lang3.Validate;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/11/01 15:40
+ * 线程安全的追加写入，将大量小的append合并为大块写入：
+ *  1. append只复制到内存缓冲区，缓冲区满时整块写入文件（不刷盘）
+ *  2. sync将此前所有append的内容写入并按FsyncPolicy刷盘。组提交：一个线程刷盘期间其他线程的sync排队等待，
+ *     下一个获得锁的线程一次写入并刷盘所有累积的内容，已被覆盖的sync直接返回，多个线程共享一次fsync
+ *  3. 单条超过缓冲区一半的内容直接写入，不经过缓冲区
+ *  4. 写入或刷盘失败后不再可用，之后的append、flush、sync都抛出IOException，避免sync对已丢失的内容报告成功
+ */
+public class AppendWriter implements Closeable, Flushable {
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final FsyncPolicy policy;
+
+    /**
+     * 保证写入文件的顺序与刷盘，持有时可再获取this，反之不行
+     * */
+    private final Object writeLock = new Object();
+
+    /**
+     * 以下由this保护
+     * */
+    private byte[] buffer;
+    private byte[] spare;
+    private int count;
+    private long appended;
+    private boolean closed;
+    private IOException failure;
+
+    /**
+     * 以下由writeLock保护
+     * */
+    private long synced;
+
+    public AppendWriter(@NotNull File file) throws IOException {
+        this(file, DEFAULT_BUFFER_SIZE, FsyncPolicy.NONE);
+    }
+
+    public AppendWriter(@NotNull File file, @NotNull FsyncPolicy policy) throws IOException {
+        this(file, DEFAULT_BUFFER_SIZE, policy);
+    }
+
+    public AppendWriter(@NotNull File file, int bufferSize, @NotNull FsyncPolicy policy) throws IOException {
+        Validate.isTrue(bufferSize > 0, "bufferSize must be positive");
+        Validate.notNull(policy);
+        FileUtil.makesureParentDirExists(file);
+
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND);
+        this.policy = policy;
+        this.buffer = new byte[bufferSize];
+        this.spare = new byte[bufferSize];
+    }
+
+    public void append(@NotNull CharSequence data) throws IOException {
+        append(data.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void append(@NotNull byte[] data) throws IOException {
+        if (data.length > buffer.length / 2) {
+            drain(data, false, false);
+            return;
+        }
+
+        while (true) {
+            synchronized (this) {
+                ensureOpen();
+                if (count + data.length <= buffer.length) {
+                    System.arraycopy(data, 0, buffer, count, data.length);
+                    count += data.length;
+                    appended += data.length;
+                    return;
+                }
+            }
+            drain(null, false, false);
+        }
+    }
+
+    /**
+     * 将缓冲区写入文件，不刷盘
+     * */
+    @Override
+    public void flush() throws IOException {
+        drain(null, false, false);
+    }
+
+    /**
+     * 将此前所有append的内容写入文件并按FsyncPolicy刷盘，返回时这些内容已持久化
+     * */
+    public void sync() throws IOException {
+        long target;
+        synchronized (this) {
+            ensureOpen();
+            target = appended;
+        }
+
+        synchronized (writeLock) {
+            if (synced >= target) {
+                return;
+            }
+            drain(null, true, false);
+        }
+    }
+
+    /**
+     * 已append的总字节数
+     * */
+    public synchronized long size() {
+        return appended;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (writeLock) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+            }
+            try {
+                drain(null, true, true);
+            } finally {
+                synchronized (this) {
+                    closed = true;
+                }
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * 取出缓冲区（与备用缓冲区交换）写入文件，extra不为null时紧接其后写入
+     * close时在同一临界区内标记关闭，之后的append不会再进入缓冲区
+     * */
+    private void drain(byte[] extra, boolean force, boolean close) throws IOException {
+        synchronized (writeLock) {
+            byte[] data;
+            int length;
+            long end;
+            synchronized (this) {
+                ensureOpen();
+                data = buffer;
+                length = count;
+                buffer = spare;
+                spare = null;
+                count = 0;
+                if (extra != null) {
+                    appended += extra.length;
+                }
+                end = appended;
+                if (close) {
+                    closed = true;
+                }
+            }
+
+            try {
+                write(data, length);
+                if (extra != null) {
+                    write(extra, extra.length);
+                }
+                if (force && synced < end) {
+                    policy.force(channel);
+                    synced = end;
+                }
+            } catch (IOException e) {
+                synchronized (this) {
+                    failure = e;
+                }
+                throw e;
+            } finally {
+                synchronized (this) {
+                    spare = data;
+                }
+            }
+        }
+    }
+
+    private void write(byte[] data, int length) throws IOException {
+        ByteBuffer source = ByteBuffer.wrap(data, 0, length);
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (failure != null) {
+            throw new IOException("AppendWriter failed earlier, data appended since the last sync may be lost", failure);
+        }
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.platformutil.io;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/10/31 14:00
+ * FileUtil复制文件、目录的选项：
+ *  1. preserveAttributes：保留修改时间、访问时间、创建时间，文件系统支持时保留POSIX权限
+ *  2. bufferSize：FileChannel.transferTo无法完成时（如复制过程中文件增长）使用的缓冲大小
+ */
+public class CopyOptions {
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private boolean preserveAttributes;
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+    public boolean isPreserveAttributes() {
+        return preserveAttributes;
+    }
+
+    public CopyOptions preserveAttributes(boolean preserveAttributes) {
+        this.preserveAttributes = preserveAttributes;
+        return this;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public CopyOptions bufferSize(int bufferSize) {
+        Validate.isTrue(bufferSize > 0, "bufferSize must be positive");
+        this.bufferSize = bufferSize;
+        return this;
+    }
+}
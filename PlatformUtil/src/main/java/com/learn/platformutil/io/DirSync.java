@@ -0,0 +1,252 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.platformutil.io;
+
+import com.google.common.base.Throwables;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/11/05 10:30
+ * FileUtil.syncDir的实现，只复制新增或变化的文件：
+ *  1. 先顺序遍历源目录（跟随符号链接，与copyDir一致）并建好目标目录，再在ForkJoinPool中并行比较、复制文件
+ *  2. 大小和修改时间（毫秒）都相同视为未变化；checksum时大小相同再比较摘要，并把目标的修改时间改为与源一致
+ *  3. 复制先写入同目录下的临时文件再原子重命名，中断时目标要么是旧文件要么是新文件
+ *  4. 删除多余文件时不跟随符号链接（与deleteDirParallel一致），最后设置目录属性
+ *  单个文件失败不中断其余文件，全部结束后抛出汇总的IOException
+ */
+class DirSync {
+    private static final int MAX_SUPPRESSED = 100;
+
+    private final Path source;
+    private final Path target;
+    private final SyncOptions options;
+    private final FileProgressListener listener;
+
+    private final List<Path> files = new ArrayList<>();
+    private final List<BasicFileAttributes> fileAttrs = new ArrayList<>();
+    private final List<Path> dirs = new ArrayList<>();
+    private final Set<Path> sourcePaths = new HashSet<>();
+
+    private final AtomicLong copied = new AtomicLong();
+    private final AtomicLong copiedBytes = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong deleted = new AtomicLong();
+    private final Queue<IOException> errors = new ConcurrentLinkedQueue<>();
+    private final AtomicLong errorCount = new AtomicLong();
+
+    DirSync(Path source, Path target, SyncOptions options, FileProgressListener listener) {
+        this.source = source;
+        this.target = target;
+        this.options = options;
+        this.listener = listener;
+    }
+
+    SyncResult run() throws IOException {
+        collect();
+        syncFiles();
+        if (options.isDeleteExtraneous()) {
+            deleteExtraneous();
+        }
+        // 目录的修改时间在其内容变化后才能确定，从最深的目录开始设置
+        for (int i = dirs.size() - 1; i >= 0; i--) {
+            Path dir = dirs.get(i);
+            try {
+                FileUtil.copyAttributes(dir, target.resolve(source.relativize(dir)),
+                    Files.readAttributes(dir, BasicFileAttributes.class));
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        if (errorCount.get() > 0) {
+            IOException failure = new IOException("Failed to sync " + source + " to " + target + ", "
+                + errorCount.get() + " error(s)");
+            errors.forEach(failure::addSuppressed);
+            throw failure;
+        }
+        return new SyncResult(copied.get(), copiedBytes.get(), skipped.get(), deleted.get());
+    }
+
+    private void collect() throws IOException {
+        Files.walkFileTree(source, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE,
+            new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    Path relative = source.relativize(dir);
+                    Path copy = target.resolve(relative);
+                    if (Files.exists(copy, LinkOption.NOFOLLOW_LINKS)
+                        && !Files.isDirectory(copy, LinkOption.NOFOLLOW_LINKS)) {
+                        Files.delete(copy);
+                        deleted.incrementAndGet();
+                    }
+                    Files.createDirectories(copy);
+                    sourcePaths.add(relative);
+                    dirs.add(dir);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    sourcePaths.add(source.relativize(file));
+                    files.add(file);
+                    fileAttrs.add(attrs);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                    if (exc != null) {
+                        throw exc;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+    }
+
+    private void syncFiles() throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(options.getParallelism());
+        try {
+            pool.submit(() -> IntStream.range(0, files.size()).parallel().forEach(i -> {
+                try {
+                    syncFile(files.get(i), fileAttrs.get(i));
+                } catch (IOException e) {
+                    fail(e);
+                }
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while syncing " + source);
+        } catch (ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void syncFile(Path file, BasicFileAttributes attrs) throws IOException {
+        Path copy = target.resolve(source.relativize(file));
+        BasicFileAttributes copyAttrs;
+        try {
+            copyAttrs = Files.readAttributes(copy, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (NoSuchFileException e) {
+            copyAttrs = null;
+        }
+
+        if (copyAttrs != null && copyAttrs.isDirectory()) {
+            ParallelFileTree.delete(copy, 1, (path, completed) -> deleted.incrementAndGet());
+        } else if (copyAttrs != null && copyAttrs.isRegularFile() && copyAttrs.size() == attrs.size()) {
+            if (!options.isChecksum()) {
+                if (copyAttrs.lastModifiedTime().toMillis() == attrs.lastModifiedTime().toMillis()) {
+                    skipped.incrementAndGet();
+                    return;
+                }
+            } else if (FileUtil.hash(file.toFile(), options.getChecksumAlgorithm())
+                .equals(FileUtil.hash(copy.toFile(), options.getChecksumAlgorithm()))) {
+                if (copyAttrs.lastModifiedTime().toMillis() != attrs.lastModifiedTime().toMillis()) {
+                    Files.setLastModifiedTime(copy, attrs.lastModifiedTime());
+                }
+                skipped.incrementAndGet();
+                return;
+            }
+        }
+
+        Path temp = FileUtil.createSiblingTempFile(copy);
+        try {
+            FileUtil.transfer(file, temp, options.getBufferSize());
+            FileUtil.copyAttributes(file, temp, attrs);
+            FileUtil.moveReplacing(temp, copy);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        copiedBytes.addAndGet(attrs.size());
+        long completed = copied.incrementAndGet();
+        if (listener != null) {
+            listener.onProgress(copy, completed);
+        }
+    }
+
+    private void deleteExtraneous() throws IOException {
+        final List<Path> extraneous = new ArrayList<>();
+        Files.walkFileTree(target, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (!dir.equals(target) && !sourcePaths.contains(target.relativize(dir))) {
+                    extraneous.add(dir);
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (!sourcePaths.contains(target.relativize(file))) {
+                    extraneous.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        for (Path path : extraneous) {
+            try {
+                if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                    ParallelFileTree.delete(path, options.getParallelism(),
+                        (deletedPath, completed) -> deleted.incrementAndGet());
+                } else {
+                    Files.delete(path);
+                    deleted.incrementAndGet();
+                }
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+
+    private void fail(IOException e) {
+        if (errorCount.incrementAndGet() <= MAX_SUPPRESSED) {
+            errors.add(e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.platformutil.io;
+
+import java.nio.file.Path;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/11/04 10:00
+ * FileWatcher合并后的文件变更事件
+ */
+public final class FileChangeEvent {
+    public enum Kind {
+        CREATED,
+        MODIFIED,
+        DELETED,
+        /**
+         * 事件过多被操作系统丢弃，path为所在的监听目录，需要自行重新扫描
+         * */
+        OVERFLOW
+    }
+
+    private final Path path;
+    private final Kind kind;
+
+    public FileChangeEvent(Path path, Kind kind) {
+        this.path = path;
+        this.kind = kind;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * 同一路径在防抖时间内的两次变更合并为一次，返回null表示相互抵消（创建后又删除）
+     * */
+    static Kind merge(Kind previous, Kind next) {
+        if (previous == Kind.OVERFLOW || next == Kind.OVERFLOW) {
+            return Kind.OVERFLOW;
+        }
+        switch (previous) {
+            case CREATED:
+                return next == Kind.DELETED ? null : Kind.CREATED;
+            case MODIFIED:
+                return next == Kind.DELETED ? Kind.DELETED : Kind.MODIFIED;
+            default:
+                return next == Kind.DELETED ? Kind.DELETED : Kind.MODIFIED;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return kind + " " + path;
+    }
+}
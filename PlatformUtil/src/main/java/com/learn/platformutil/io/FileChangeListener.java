@@ -0,0 +1,38 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.platformutil.io;
+
+import java.util.List;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/11/04 10:00
+ * FileWatcher的变更回调，在FileWatcher的分发线程中调用，分发线程多于1个时须线程安全
+ */
+@FunctionalInterface
+public interface FileChangeListener {
+    /**
+     * 每批到期（防抖时间内没有新变更）的事件调用一次
+     *
+     * @param events 已合并的事件，每个路径最多一个
+     * */
+    void onChange(List<FileChangeEvent> events);
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.platformutil.io;
+
+import com.sun.istack.internal.NotNull;
+import org.apache.commons.lang3.Validate;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/11/06 10:00
+ * FileUtil.scan使用的过滤条件，只使用遍历时已读取的BasicFileAttributes，不再访问文件系统
+ * 可用BiPredicate的and、or、negate组合，如：FileFilters.extension("log").and(FileFilters.olderThan(7, TimeUnit.DAYS))
+ */
+public class FileFilters {
+    /**
+     * 普通文件（不跟随符号链接，符号链接本身不是普通文件）
+     * */
+    public static BiPredicate<Path, BasicFileAttributes> isFile() {
+        return (path, attrs) -> attrs.isRegularFile();
+    }
+
+    public static BiPredicate<Path, BasicFileAttributes> isDirectory() {
+        return (path, attrs) -> attrs.isDirectory();
+    }
+
+    /**
+     * glob匹配，pattern不含'/'时只匹配文件名（如"*.{log,tmp}"），否则匹配完整路径（如"**&#47;logs/*.log"）
+     * */
+    public static BiPredicate<Path, BasicFileAttributes> glob(@NotNull String pattern) {
+        Validate.notEmpty(pattern);
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+        if (pattern.indexOf('/') < 0) {
+            return (path, attrs) -> {
+                Path name = path.getFileName();
+                return name != null && matcher.matches(name);
+            };
+        }
+        return (path, attrs) -> matcher.matches(path);
+    }
+
+    /**
+     * 扩展名（不含'.'，忽略大小写）为其中之一的普通文件
+     * */
+    public static BiPredicate<Path, BasicFileAttributes> extension(@NotNull String... extensions) {
+        Validate.notEmpty(extensions);
+        Set<String> accepted = new HashSet<>();
+        for (String extension : extensions) {
+            accepted.add(extension.toLowerCase(Locale.ROOT));
+        }
+        return (path, attrs) -> {
+            Path name = path.getFileName();
+            return attrs.isRegularFile() && name != null
+                && accepted.contains(FileUtil.getFileExtension(name.toString()).toLowerCase(Locale.ROOT));
+        };
+    }
+
+    /**
+     * 大小不小于size字节的普通文件
+     * */
+    public static BiPredicate<Path, BasicFileAttributes> largerThan(long size) {
+        return (path, attrs) -> attrs.isRegularFile() && attrs.size() >= size;
+    }
+
+    /**
+     * 大小不大于size字节的普通文件
+     * */
+    public static BiPredicate<Path, BasicFileAttributes> smallerThan(long size) {
+        return (path, attrs) -> attrs.isRegularFile() && attrs.size() <= size;
+    }
+
+    /**
+     * 修改时间早于millis
+     * */
+    public static BiPredicate<Path, BasicFileAttributes> modifiedBefore(long millis) {
+        return (path, attrs) -> attrs.lastModifiedTime().toMillis() < millis;
+    }
+
+    /**
+     * 修改时间不早于millis
+     * */
+    public static BiPredicate<Path, BasicFileAttributes> modifiedAfter(long millis) {
+        return (path, attrs) -> attrs.lastModifiedTime().toMillis() >= millis;
+    }
+
+    /**
+     * 修改时间早于调用时刻之前的age，截止时间在调用时确定
+     * */
+    public static BiPredicate<Path, BasicFileAttributes> olderThan(long age, @NotNull TimeUnit unit) {
+        return modifiedBefore(System.currentTimeMillis() - unit.toMillis(age));
+    }
+
+    /**
+     * 修改时间在调用时刻之前的age以内
+     * */
+    public static BiPredicate<Path, BasicFileAttributes> newerThan(long age, @NotNull TimeUnit unit) {
+        return modifiedAfter(System.currentTimeMillis() - unit.toMillis(age));
+    }
+
+    /**
+     * 全部接受
+     * */
+    public static BiPredicate<Path, BasicFileAttributes> all() {
+        return (path, attrs) -> true;
+    }
+}
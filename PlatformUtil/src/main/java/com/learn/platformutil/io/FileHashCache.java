@@ -0,0 +1,209 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.platformutil.io;
+
+import com.sun.istack.internal.NotNull;
+import org.apache.commons.lang3.Validate;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/11/04 15:20
+ * 持久化的文件摘要缓存，以(大小, 修改时间)判断文件是否变化，未变化的文件不重新计算：
+ *  1. 缓存文件每行一条：摘要\t大小\t修改时间(毫秒)\t绝对路径，save时通过FileUtil.writeAtomic整体替换
+ *  2. 修改时间距计算时不足RACY_WINDOW_MILLIS的文件不缓存：同一时间精度内再次修改时大小和修改时间可能都不变
+ *  3. 线程安全，可在多个线程中同时调用hash
+ */
+public class FileHashCache {
+    private static final long RACY_WINDOW_MILLIS = 2000;
+
+    private final File cacheFile;
+    private final String algorithm;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+
+    /**
+     * 缓存文件存在时立即加载，不同算法的缓存须使用不同的文件
+     * */
+    public FileHashCache(@NotNull File cacheFile, @NotNull String algorithm) throws IOException {
+        Validate.notNull(cacheFile);
+        Validate.notNull(algorithm);
+        this.cacheFile = cacheFile;
+        this.algorithm = algorithm;
+        if (FileUtil.isFileExists(cacheFile)) {
+            load();
+        }
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public String hash(@NotNull File file) throws IOException {
+        Validate.isTrue(FileUtil.isFileExists(file), file + " is not exist or not a file");
+        String path = file.getAbsolutePath();
+        BasicFileAttributes attrs = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        long size = attrs.size();
+        long modified = attrs.lastModifiedTime().toMillis();
+
+        Entry entry = entries.get(path);
+        if (entry != null && entry.size == size && entry.modified == modified) {
+            return entry.hash;
+        }
+
+        long start = System.currentTimeMillis();
+        String hash = FileUtil.hash(file, algorithm);
+        if (start - modified >= RACY_WINDOW_MILLIS) {
+            entries.put(path, new Entry(hash, size, modified));
+            dirty = true;
+        } else if (entry != null) {
+            entries.remove(path);
+            dirty = true;
+        }
+        return hash;
+    }
+
+    /**
+     * 并行计算多个文件的摘要，只有缓存未命中的文件才会读取，返回的Map按files的顺序
+     * */
+    public Map<File, String> hashAll(@NotNull Collection<File> files, int parallelism) throws IOException {
+        Validate.notNull(files);
+        Map<File, String> hashes = new LinkedHashMap<>(files.size() * 4 / 3 + 1);
+        List<File> misses = new ArrayList<>();
+        for (File file : files) {
+            String cached = cached(file);
+            hashes.put(file, cached);
+            if (cached == null) {
+                misses.add(file);
+            }
+        }
+        if (misses.isEmpty()) {
+            return hashes;
+        }
+
+        Map<File, String> computed = FileUtil.hashAll(misses, parallelism, this::hash);
+        for (File file : misses) {
+            hashes.put(file, computed.get(file));
+        }
+        return hashes;
+    }
+
+    /**
+     * 移除已不存在的文件的记录
+     * */
+    public int prune() {
+        int removed = 0;
+        for (Iterator<String> it = entries.keySet().iterator(); it.hasNext(); ) {
+            if (!new File(it.next()).isFile()) {
+                it.remove();
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            dirty = true;
+        }
+        return removed;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+        dirty = true;
+    }
+
+    /**
+     * 有变化时原子地写回缓存文件
+     * */
+    public synchronized void save() throws IOException {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+
+        StringBuilder content = new StringBuilder(entries.size() * 128);
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            Entry value = entry.getValue();
+            content.append(value.hash).append('\t').append(value.size).append('\t').append(value.modified)
+                .append('\t').append(entry.getKey()).append('\n');
+        }
+        try {
+            FileUtil.writeAtomic(content, cacheFile, FsyncPolicy.DATA);
+        } catch (IOException | RuntimeException e) {
+            dirty = true;
+            throw e;
+        }
+    }
+
+    private String cached(File file) throws IOException {
+        Entry entry = entries.get(file.getAbsolutePath());
+        if (entry == null || !file.isFile()) {
+            return null;
+        }
+        BasicFileAttributes attrs = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        if (entry.size == attrs.size() && entry.modified == attrs.lastModifiedTime().toMillis()) {
+            return entry.hash;
+        }
+        return null;
+    }
+
+    /**
+     * 格式不正确的行忽略
+     * */
+    private void load() throws IOException {
+        FileUtil.forEachLine(cacheFile, line -> {
+            String[] fields = line.split("\t", 4);
+            if (fields.length != 4 || fields[0].isEmpty()) {
+                return;
+            }
+            try {
+                entries.put(fields[3], new Entry(fields[0], Long.parseLong(fields[1]), Long.parseLong(fields[2])));
+            } catch (NumberFormatException e) {
+                // 忽略
+            }
+        });
+    }
+
+    private static final class Entry {
+        private final String hash;
+        private final long size;
+        private final long modified;
+
+        private Entry(String hash, long size, long modified) {
+            this.hash = hash;
+            this.size = size;
+            this.modified = modified;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.platformutil.io;
+
+import java.nio.file.Path;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/10/31 16:00
+ * FileUtil批量文件操作的进度回调，并行操作时会在多个线程中调用，实现须线程安全且尽量轻量
+ */
+@FunctionalInterface
+public interface FileProgressListener {
+    /**
+     * 每处理完一个文件（删除时也包括目录）调用一次
+     *
+     * @param path 刚处理完的文件
+     * @param completed 目前已处理完的总数
+     * */
+    void onProgress(Path path, long completed);
+}
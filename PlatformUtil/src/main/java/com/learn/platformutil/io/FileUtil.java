@@ -16,16 +16,56 @@
 package com.learn.platformutil.io;
 
 import com.google.common.base.Charsets;
+import com.google.common.base.Throwables;
+import com.google.common.io.BaseEncoding;
 import com.google.common.io.Files;
 import com.learn.platformutil.base.PlatformsUtil;
 import com.sun.istack.internal.NotNull;
+import com.sun.istack.internal.Nullable;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 
 import javax.annotation.processing.FilerException;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * <p> Title: </p>
@@ -40,6 +80,18 @@ import java.util.List;
  * 2.文件及目录操作
  */
 public class FileUtil {
+    /**
+     * mapChunks每块的大小
+     * */
+    public static final long MAP_CHUNK_SIZE = 1L << 30;
+
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<ByteBuffer> HASH_BUFFER =
+        ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(HASH_BUFFER_SIZE));
+
+    private static final BaseEncoding HEX = BaseEncoding.base16().lowerCase();
+
     /**
      * 文件读写
      * */
@@ -55,6 +107,52 @@ public class FileUtil {
         return Files.readLines(file, Charsets.UTF_8);
     }
 
+    /**
+     * 按行延迟读取文件（UTF-8，行尾为"\n"或"\r\n"），使用完毕须关闭Stream（try-with-resources）以释放文件
+     * */
+    public static Stream<String> lines(@NotNull File file) throws IOException {
+        return lines(file, false);
+    }
+
+    /**
+     * 同lines，但返回并行Stream：文件按字节范围拆分，拆分点对齐到换行符，各分片独立读取
+     * 需要保持行顺序时使用forEachOrdered
+     * */
+    public static Stream<String> parallelLines(@NotNull File file) throws IOException {
+        return lines(file, true);
+    }
+
+    /**
+     * 逐行处理文件，不保留已读取的行
+     * */
+    public static void forEachLine(@NotNull File file, @NotNull Consumer<? super String> action) throws IOException {
+        Validate.notNull(action);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            new LineSpliterator(channel, 0, channel.size()).forEachRemaining(action);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Stream<String> lines(File file, boolean parallel) throws IOException {
+        Validate.isTrue(isFileExists(file), file + " is not exist or not a file");
+
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            return StreamSupport.stream(new LineSpliterator(channel, 0, channel.size()), parallel)
+                .onClose(() -> {
+                    try {
+                        channel.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
     public static void write(final CharSequence data, final File file) throws IOException {
         Files.write(data, file, Charsets.UTF_8);
     }
@@ -63,6 +161,227 @@ public class FileUtil {
         Files.append(from, to, Charsets.UTF_8);
     }
 
+    /**
+     * 原子写入：先写入同目录下的临时文件并按FsyncPolicy.ALL刷盘，再原子重命名覆盖目标文件，
+     * 任何时刻崩溃，目标文件要么是旧内容，要么是完整的新内容
+     * */
+    public static void writeAtomic(@NotNull CharSequence data, @NotNull File file) throws IOException {
+        writeAtomic(data.toString().getBytes(StandardCharsets.UTF_8), file, FsyncPolicy.ALL);
+    }
+
+    public static void writeAtomic(@NotNull CharSequence data, @NotNull File file, @NotNull FsyncPolicy policy)
+        throws IOException {
+        writeAtomic(data.toString().getBytes(StandardCharsets.UTF_8), file, policy);
+    }
+
+    /**
+     * 文件系统不支持原子重命名时退化为普通的覆盖重命名；目标文件已存在时保留其POSIX权限
+     * */
+    public static void writeAtomic(@NotNull byte[] data, @NotNull File file, @NotNull FsyncPolicy policy)
+        throws IOException {
+        Validate.notNull(data);
+        Validate.notNull(policy);
+        Validate.isTrue(!file.isDirectory(), file + " is a directory");
+
+        Path target = file.getAbsoluteFile().toPath();
+        Path dir = target.getParent();
+        java.nio.file.Files.createDirectories(dir);
+
+        Path temp = createSiblingTempFile(target);
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(data);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                policy.force(channel);
+            }
+
+            PosixFileAttributeView targetView = java.nio.file.Files.getFileAttributeView(target,
+                PosixFileAttributeView.class);
+            if (targetView != null && java.nio.file.Files.exists(target)) {
+                java.nio.file.Files.setPosixFilePermissions(temp, targetView.readAttributes().permissions());
+            }
+
+            moveReplacing(temp, target);
+        } catch (IOException | RuntimeException e) {
+            java.nio.file.Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        if (policy == FsyncPolicy.ALL) {
+            forceDirectory(dir);
+        }
+    }
+
+    /**
+     * 原子重命名覆盖目标，文件系统不支持时退化为普通的覆盖重命名
+     * */
+    static void moveReplacing(Path from, Path to) throws IOException {
+        try {
+            java.nio.file.Files.move(from, to, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            java.nio.file.Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 以CREATE_NEW创建，权限遵循umask（File.createTempFile固定为0600）
+     * */
+    static Path createSiblingTempFile(Path target) throws IOException {
+        while (true) {
+            Path temp = target.resolveSibling("." + target.getFileName() + "."
+                + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+            try {
+                java.nio.file.Files.newByteChannel(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE).close();
+                return temp;
+            } catch (FileAlreadyExistsException e) {
+                // 名称冲突，重试
+            }
+        }
+    }
+
+    /**
+     * 刷新目录使其中的重命名持久化；Windows等不支持以读方式打开目录的平台忽略
+     * */
+    private static void forceDirectory(Path dir) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(dir, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try {
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * 以只读方式将整个文件映射到内存，不占用堆；文件不能超过2GB，更大的文件请使用mapChunks
+     * 映射在MappedByteBuffer被回收前一直有效（Windows下期间无法删除文件）
+     * */
+    public static MappedByteBuffer map(@NotNull File file) throws IOException {
+        Validate.isTrue(isFileExists(file), file + " is not exist or not a file");
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            Validate.isTrue(size <= Integer.MAX_VALUE, file + " is larger than 2GB, use mapChunks instead");
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    /**
+     * 以只读方式按MAP_CHUNK_SIZE分块映射整个文件，空文件返回空List
+     * */
+    public static List<MappedByteBuffer> mapChunks(@NotNull File file) throws IOException {
+        Validate.isTrue(isFileExists(file), file + " is not exist or not a file");
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            List<MappedByteBuffer> chunks = new ArrayList<>((int) ((size + MAP_CHUNK_SIZE - 1) / MAP_CHUNK_SIZE));
+            for (long position = 0; position < size; position += MAP_CHUNK_SIZE) {
+                chunks.add(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_CHUNK_SIZE, size - position)));
+            }
+            return chunks;
+        }
+    }
+
+    /**
+     * 基于内存映射的按行读取（UTF-8），适合远大于堆的文件：
+     * 行尾为"\n"或"\r\n"，跨块的行自动拼接，只在next()时解码当前行，非法的UTF-8字节替换为U+FFFD
+     * */
+    public static Iterator<String> mappedLines(@NotNull File file) throws IOException {
+        return new MappedLineIterator(mapChunks(file));
+    }
+
+    /**
+     * 流式计算文件摘要，返回小写十六进制（与Encodes.encodeHex一致）
+     * 通过FileChannel读入每个线程复用的直接缓冲区，不将文件读入堆
+     *
+     * @param algorithm MessageDigest算法名，如"MD5"、"SHA-256"
+     * */
+    public static String hash(@NotNull File file, @NotNull String algorithm) throws IOException {
+        Validate.isTrue(isFileExists(file), file + " is not exist or not a file");
+        MessageDigest digest = newDigest(algorithm);
+
+        ByteBuffer buffer = HASH_BUFFER.get();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            buffer.clear();
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HEX.encode(digest.digest());
+    }
+
+    /**
+     * 并行计算多个文件的摘要，返回的Map按files的顺序
+     * 单个文件失败不影响其余文件，全部结束后抛出汇总的IOException，明细在getSuppressed()中
+     *
+     * @param parallelism 并行度，即同时读取的文件数
+     * */
+    public static Map<File, String> hashAll(@NotNull Collection<File> files, @NotNull String algorithm,
+        int parallelism) throws IOException {
+        newDigest(algorithm);
+        return hashAll(files, parallelism, file -> hash(file, algorithm));
+    }
+
+    static Map<File, String> hashAll(Collection<File> files, int parallelism, FileHasher hasher) throws IOException {
+        Validate.notNull(files);
+        Validate.isTrue(parallelism > 0, "parallelism must be positive");
+
+        Map<File, String> hashes = new ConcurrentHashMap<>();
+        Queue<IOException> errors = new ConcurrentLinkedQueue<>();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> files.parallelStream().distinct().forEach(file -> {
+                try {
+                    hashes.put(file, hasher.hash(file));
+                } catch (IOException | IllegalArgumentException e) {
+                    errors.add(e instanceof IOException ? (IOException) e : new FileNotFoundException(e.getMessage()));
+                }
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while hashing files");
+        } catch (ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        if (!errors.isEmpty()) {
+            IOException failure = new IOException("Failed to hash " + errors.size() + " of " + files.size() + " files");
+            errors.forEach(failure::addSuppressed);
+            throw failure;
+        }
+
+        Map<File, String> ordered = new LinkedHashMap<>(hashes.size() * 4 / 3 + 1);
+        for (File file : files) {
+            ordered.put(file, hashes.get(file));
+        }
+        return ordered;
+    }
+
+    @FunctionalInterface
+    interface FileHasher {
+        String hash(File file) throws IOException;
+    }
+
+    private static MessageDigest newDigest(String algorithm) {
+        Validate.notNull(algorithm);
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Unsupported digest algorithm: " + algorithm, e);
+        }
+    }
+
     /**
      * @since 1.6+
      * */
@@ -93,6 +412,28 @@ public class FileUtil {
         return new FileOutputStream(file);
     }
 
+    /**
+     * 读取gzip文件（支持多个member拼接的文件，如gzip并行压缩的输出）
+     * */
+    public static InputStream asGzipInputStream(@NotNull File file) throws IOException {
+        return new GZIPInputStream(new FileInputStream(file), CopyOptions.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param level 压缩级别，0-9或Deflater.DEFAULT_COMPRESSION
+     * */
+    public static OutputStream asGzipOutputStream(@NotNull File file, int level) throws IOException {
+        Validate.isTrue(level >= Deflater.DEFAULT_COMPRESSION && level <= Deflater.BEST_COMPRESSION,
+            "Illegal level: %d", level);
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            return ZipArchiver.gzipOutputStream(out, CopyOptions.DEFAULT_BUFFER_SIZE, level);
+        } catch (IOException e) {
+            out.close();
+            throw e;
+        }
+    }
+
     public static BufferedReader asBufferedReader(String fileName) throws IOException {
         if (StringUtils.isNotBlank(fileName)) {
             return Files.newReader(getFileByPath(fileName), Charsets.UTF_8);
@@ -113,48 +454,328 @@ public class FileUtil {
      * 文件操作
      * */
     public static void copy(@NotNull File from, @NotNull File to) throws IOException {
+        copy(from, to, new CopyOptions());
+    }
+
+    public static void copy(@NotNull File from, @NotNull File to, @NotNull CopyOptions options) throws IOException {
         Validate.notNull(from);
         Validate.notNull(to);
 
         if (from.isDirectory()) {
             // 拷贝文件夹
-            copyDir(from, to);
+            copyDir(from, to, options);
         } else {
             // 拷贝文件
-            copyFile(from, to);
+            copyFile(from, to, options);
         }
     }
 
     public static void copyFile(@NotNull File from, @NotNull File to) throws IOException {
+        copyFile(from, to, new CopyOptions());
+    }
+
+    /**
+     * 使用FileChannel.transferTo复制文件，由内核完成数据搬运（Linux下为sendfile），不经过用户态缓冲
+     * */
+    public static void copyFile(@NotNull File from, @NotNull File to, @NotNull CopyOptions options)
+        throws IOException {
         Validate.isTrue(isFileExists(from), from + " is not exist or not a file");
         Validate.notNull(to);
+        Validate.notNull(options);
 
         Validate.isTrue(!isDirExists(to), to + " is exist but it is a dir");
-        Files.copy(from, to);
+        transfer(from.toPath(), to.toPath(), options.getBufferSize());
+        if (options.isPreserveAttributes()) {
+            copyAttributes(from.toPath(), to.toPath(),
+                java.nio.file.Files.readAttributes(from.toPath(), BasicFileAttributes.class));
+        }
     }
 
     public static void copyDir(@NotNull File from, @NotNull File to) throws IOException {
+        copyDir(from, to, new CopyOptions());
+    }
+
+    /**
+     * 使用Files.walkFileTree遍历（跟随符号链接），文件逐个以transferTo复制，目录属性在其内容复制完成后设置
+     * */
+    public static void copyDir(@NotNull File from, @NotNull File to, @NotNull CopyOptions options)
+        throws IOException {
         Validate.isTrue(isDirExists(from), from + " is not exist or not a dir");
         Validate.notNull(to);
+        Validate.notNull(options);
 
         if (to.exists()) {
             Validate.isTrue(!to.isFile(), to + " is exist but it is a file");
-        } else {
-            to.mkdirs();
         }
+        final Path source = from.toPath().toAbsolutePath().normalize();
+        final Path target = to.toPath().toAbsolutePath().normalize();
+        Validate.isTrue(!target.startsWith(source),
+            "Cannot copy directory: " + from + " to itself or its subdirectory: " + to);
+
+        java.nio.file.Files.walkFileTree(source, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE,
+            new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    java.nio.file.Files.createDirectories(target.resolve(source.relativize(dir)));
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    Path copy = target.resolve(source.relativize(file));
+                    transfer(file, copy, options.getBufferSize());
+                    if (options.isPreserveAttributes()) {
+                        copyAttributes(file, copy, attrs);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
 
-        File[] files = from.listFiles();
-        if (files != null) {
-            for (int i = 0; i < files.length; i++) {
-                String name = files[i].getName();
-                if (".".equals(name) || "..".equals(name)) {
-                    continue;
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                    if (exc != null) {
+                        throw exc;
+                    }
+                    if (options.isPreserveAttributes()) {
+                        copyAttributes(dir, target.resolve(source.relativize(dir)),
+                            java.nio.file.Files.readAttributes(dir, BasicFileAttributes.class));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+    }
+
+    /**
+     * 增量同步目录（类似rsync）：只复制目标中不存在或大小、修改时间（checksum时为内容）不同的文件，
+     * 可选删除目标中多余的文件；文件并行比较、复制，并行度由options.parallelism限制
+     * 单个文件失败不影响其余文件，全部结束后抛出汇总的IOException，明细在getSuppressed()中
+     * */
+    public static SyncResult syncDir(@NotNull File from, @NotNull File to, @NotNull SyncOptions options)
+        throws IOException {
+        return syncDir(from, to, options, null);
+    }
+
+    /**
+     * @param listener 每复制完一个文件回调一次，可为null
+     * */
+    public static SyncResult syncDir(@NotNull File from, @NotNull File to, @NotNull SyncOptions options,
+        @Nullable FileProgressListener listener) throws IOException {
+        Validate.isTrue(isDirExists(from), from + " is not exist or not a dir");
+        Validate.notNull(to);
+        Validate.notNull(options);
+
+        if (to.exists()) {
+            Validate.isTrue(!to.isFile(), to + " is exist but it is a file");
+        }
+        Path source = from.toPath().toAbsolutePath().normalize();
+        Path target = to.toPath().toAbsolutePath().normalize();
+        Validate.isTrue(!target.startsWith(source) && !source.startsWith(target),
+            "Cannot sync directory: " + from + " with its parent or subdirectory: " + to);
+
+        return new DirSync(source, target, options, listener).run();
+    }
+
+    public static void zipDir(@NotNull File dir, @NotNull File zipFile) throws IOException {
+        zipDir(dir, zipFile, new ZipOptions());
+    }
+
+    /**
+     * 将目录（跟随符号链接）压缩为zip，条目名为相对dir的路径（UTF-8，不含dir本身），空目录也会保留
+     * 先写入同目录下的临时文件，完成后原子替换zipFile；zipFile位于dir中时自动排除
+     * */
+    public static void zipDir(@NotNull File dir, @NotNull File zipFile, @NotNull ZipOptions options)
+        throws IOException {
+        Validate.isTrue(isDirExists(dir), dir + " is not exist or not a dir");
+        Validate.notNull(zipFile);
+        Validate.notNull(options);
+        Validate.isTrue(!zipFile.isDirectory(), zipFile + " is a directory");
+
+        Path target = zipFile.toPath().toAbsolutePath().normalize();
+        java.nio.file.Files.createDirectories(target.getParent());
+        ZipArchiver.zip(dir.toPath().toAbsolutePath().normalize(), target, options);
+    }
+
+    /**
+     * 解压到dir，已存在的文件被覆盖；解压前检查所有条目，任何条目的路径落在dir之外（zip slip）时抛出IOException，不解压任何文件
+     * */
+    public static void unzip(@NotNull File zipFile, @NotNull File dir) throws IOException {
+        Validate.isTrue(isFileExists(zipFile), zipFile + " is not exist or not a file");
+        Validate.notNull(dir);
+        Validate.isTrue(!dir.isFile(), dir + " is exist but it is a file");
+
+        ZipArchiver.unzip(zipFile.toPath(), dir.toPath(), CopyOptions.DEFAULT_BUFFER_SIZE);
+    }
+
+    public static void gzip(@NotNull File from, @NotNull File to) throws IOException {
+        gzip(from, to, new ZipOptions());
+    }
+
+    /**
+     * 压缩为gzip，并行时按块压缩为多个member拼接，GZIPInputStream、gzip -d均可直接解压
+     * */
+    public static void gzip(@NotNull File from, @NotNull File to, @NotNull ZipOptions options) throws IOException {
+        Validate.isTrue(isFileExists(from), from + " is not exist or not a file");
+        Validate.notNull(to);
+        Validate.notNull(options);
+        makesureParentDirExists(to.getAbsoluteFile());
+
+        ZipArchiver.gzip(from.toPath(), to.getAbsoluteFile().toPath(), options);
+    }
+
+    public static void gunzip(@NotNull File from, @NotNull File to) throws IOException {
+        Validate.isTrue(isFileExists(from), from + " is not exist or not a file");
+        Validate.notNull(to);
+        makesureParentDirExists(to.getAbsoluteFile());
+
+        ZipArchiver.gunzip(from.toPath(), to.getAbsoluteFile().toPath(), CopyOptions.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 扫描目录树，返回root之下（不含root）满足filter的文件和目录，按遍历顺序
+     * 基于Files.walkFileTree，每个条目只读取一次BasicFileAttributes并传给filter；不跟随符号链接
+     *
+     * @param filter 条件，见FileFilters；目录不匹配时仍会扫描其中的内容
+     * */
+    public static List<Path> scan(@NotNull File root, @NotNull BiPredicate<Path, BasicFileAttributes> filter)
+        throws IOException {
+        return scan(root, filter, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param maxDepth 最大深度，1表示只扫描root的直接子项
+     * */
+    public static List<Path> scan(@NotNull File root, @NotNull BiPredicate<Path, BasicFileAttributes> filter,
+        int maxDepth) throws IOException {
+        List<Path> matched = new ArrayList<>();
+        scan(root, filter, maxDepth, (path, attrs) -> matched.add(path));
+        return matched;
+    }
+
+    /**
+     * 逐个处理满足filter的条目，不保留结果，适合数百万条目的目录树；遇到无法读取的目录时抛出IOException
+     * */
+    public static void scan(@NotNull File root, @NotNull BiPredicate<Path, BasicFileAttributes> filter,
+        int maxDepth, @NotNull BiConsumer<Path, BasicFileAttributes> action) throws IOException {
+        Validate.isTrue(isDirExists(root), root + " is not exist or not a dir");
+        Validate.notNull(filter);
+        Validate.notNull(action);
+        Validate.isTrue(maxDepth >= 0, "maxDepth must not be negative");
+
+        final Path start = root.toPath();
+        java.nio.file.Files.walkFileTree(start, EnumSet.noneOf(FileVisitOption.class), maxDepth,
+            new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if (!dir.equals(start) && filter.test(dir, attrs)) {
+                        action.accept(dir, attrs);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    // 达到maxDepth的目录也在这里访问，maxDepth为0时包括root本身
+                    if (!file.equals(start) && filter.test(file, attrs)) {
+                        action.accept(file, attrs);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+    }
+
+    /**
+     * 以fork-join并行扫描，每个目录一个任务，适合大目录树或网络文件系统；结果无序
+     * 无法读取的条目不中断扫描，全部结束后抛出汇总的IOException，明细在getSuppressed()中
+     *
+     * @param parallelism 并行度，即同时读取的目录数
+     * */
+    public static List<Path> scanParallel(@NotNull File root, @NotNull BiPredicate<Path, BasicFileAttributes> filter,
+        int maxDepth, int parallelism) throws IOException {
+        Validate.isTrue(isDirExists(root), root + " is not exist or not a dir");
+        Validate.notNull(filter);
+        Validate.isTrue(maxDepth >= 0, "maxDepth must not be negative");
+        Validate.isTrue(parallelism > 0, "parallelism must be positive");
+
+        return ParallelFileTree.scan(root.toPath(), filter, maxDepth, parallelism);
+    }
+
+    /**
+     * 并行复制目录，使用可用处理器数作为并行度
+     * */
+    public static void copyDirParallel(@NotNull File from, @NotNull File to, @NotNull CopyOptions options)
+        throws IOException {
+        copyDirParallel(from, to, options, Runtime.getRuntime().availableProcessors(), null);
+    }
+
+    /**
+     * 以fork-join并行复制目录（跟随符号链接）：每个目录一个任务，目录中的文件分批并行复制
+     * 单个文件失败不影响其余文件，全部结束后抛出汇总的IOException，明细在getSuppressed()中
+     *
+     * @param parallelism 并行度，即同时复制的文件数
+     * @param listener 每复制完一个文件回调一次，可为null
+     * */
+    public static void copyDirParallel(@NotNull File from, @NotNull File to, @NotNull CopyOptions options,
+        int parallelism, @Nullable FileProgressListener listener) throws IOException {
+        Validate.isTrue(isDirExists(from), from + " is not exist or not a dir");
+        Validate.notNull(to);
+        Validate.notNull(options);
+        Validate.isTrue(parallelism > 0, "parallelism must be positive");
+
+        if (to.exists()) {
+            Validate.isTrue(!to.isFile(), to + " is exist but it is a file");
+        }
+        Path source = from.toPath().toAbsolutePath().normalize();
+        Path target = to.toPath().toAbsolutePath().normalize();
+        Validate.isTrue(!target.startsWith(source),
+            "Cannot copy directory: " + from + " to itself or its subdirectory: " + to);
+
+        ParallelFileTree.copy(source, target, options, parallelism, listener);
+    }
+
+    /**
+     * transferTo循环直到文件末尾；若提前返回0或复制期间文件增长，改用bufferSize大小的直接缓冲读写剩余部分
+     * */
+    static void transfer(Path from, Path to, int bufferSize) throws IOException {
+        // 输出以TRUNCATE_EXISTING打开，同一文件（含硬链接）会先被清空
+        Validate.isTrue(!java.nio.file.Files.exists(to) || !java.nio.file.Files.isSameFile(from, to),
+            "Source %s and destination %s must be different", from, to);
+        try (FileChannel in = FileChannel.open(from, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(to, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                 StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                long transferred = in.transferTo(position, size - position, out);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+            }
+
+            if (in.size() > position) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+                in.position(position);
+                out.position(position);
+                while (in.read(buffer) >= 0) {
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    buffer.clear();
                 }
-                copy(files[i], new File(to, name));
             }
         }
     }
 
+    static void copyAttributes(Path from, Path to, BasicFileAttributes attrs) throws IOException {
+        java.nio.file.Files.getFileAttributeView(to, BasicFileAttributeView.class)
+            .setTimes(attrs.lastModifiedTime(), attrs.lastAccessTime(), attrs.creationTime());
+
+        PosixFileAttributeView posix = java.nio.file.Files.getFileAttributeView(to, PosixFileAttributeView.class);
+        if (posix != null) {
+            posix.setPermissions(java.nio.file.Files.getPosixFilePermissions(from));
+        }
+    }
+
     public static void moveFile(@NotNull File from, @NotNull File to) throws IOException {
         Validate.isTrue(isFileExists(from), from + " is not exist or not a file");
         Validate.notNull(to);
@@ -167,7 +788,12 @@ public class FileUtil {
                 throw new IOException("Cannot move directory: " + from + " to a subdirectory of itself: " + to);
             }
             copyDir(from, to);
-            deleteDir(from);
+            try {
+                deleteDir(from);
+            } catch (UncheckedIOException e) {
+                throw new IOException("Failed to delete original directory '" + from + "' after copy to '" + to + "'",
+                    e.getCause());
+            }
             if (from.exists()) {
                 throw new IOException("Failed to delete original directory '" + from + "' after copy to '" + to + "'");
             }
@@ -190,16 +816,51 @@ public class FileUtil {
         file.delete();
     }
 
+    /**
+     * 删除目录及其中的全部内容，删除失败的文件不中断删除，结束后抛出包含失败数与首个失败文件的UncheckedIOException
+     * 保持原有不声明受检异常的签名，调用方无需修改
+     * */
     public static void deleteDir(File dir) {
         Validate.isTrue(isDirExists(dir), dir + " is not exist or not a dir");
 
         // 后序遍历，先删掉子目录中的文件/目录
+        int failures = 0;
+        File firstFailure = null;
         Iterator<File> iterator = Files.fileTreeTraverser().postOrderTraversal(dir).iterator();
         while (iterator.hasNext()) {
-            iterator.next().delete();
+            File file = iterator.next();
+            if (!file.delete() && file.exists()) {
+                if (failures++ == 0) {
+                    firstFailure = file;
+                }
+            }
+        }
+
+        if (failures > 0) {
+            throw new UncheckedIOException(new IOException(
+                "Failed to delete " + failures + " file(s) in " + dir + ", first: " + firstFailure));
         }
     }
 
+    public static void deleteDirParallel(File dir) throws IOException {
+        deleteDirParallel(dir, Runtime.getRuntime().availableProcessors(), null);
+    }
+
+    /**
+     * 以fork-join并行删除目录及其中的全部内容，不跟随符号链接（只删除链接本身）
+     * 单个文件失败不影响其余文件，全部结束后抛出汇总的IOException，明细在getSuppressed()中
+     *
+     * @param parallelism 并行度
+     * @param listener 每删除一个文件或目录回调一次，可为null
+     * */
+    public static void deleteDirParallel(File dir, int parallelism, @Nullable FileProgressListener listener)
+        throws IOException {
+        Validate.isTrue(isDirExists(dir), dir + " is not exist or not a dir");
+        Validate.isTrue(parallelism > 0, "parallelism must be positive");
+
+        ParallelFileTree.delete(dir.toPath(), parallelism, listener);
+    }
+
     public static boolean isDirExists(String dirPath) {
         return isDirExists(getFileByPath(dirPath));
     }
@@ -267,4 +928,73 @@ public class FileUtil {
     public static String getFileExtension(String fullName) {
         return Files.getFileExtension(fullName);
     }
-}
\ No newline at end of file
+
+    /**
+     * 内存映射的行迭代器：hasNext时定位下一行并将其字节复制到可复用的数组，next时解码
+     * */
+    private static final class MappedLineIterator implements Iterator<String> {
+        private final List<MappedByteBuffer> chunks;
+        private ByteBuffer current;
+        private int chunk;
+        private byte[] line = new byte[256];
+        private int lineLength = -1;
+
+        private MappedLineIterator(List<MappedByteBuffer> chunks) {
+            this.chunks = chunks;
+            this.current = chunks.isEmpty() ? null : chunks.get(0).duplicate();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (lineLength >= 0) {
+                return true;
+            }
+
+            int length = 0;
+            boolean found = false;
+            while (current != null) {
+                int start = current.position();
+                int limit = current.limit();
+                int end = start;
+                while (end < limit && current.get(end) != '\n') {
+                    end++;
+                }
+
+                int count = end - start;
+                if (length + count > line.length) {
+                    line = Arrays.copyOf(line, Math.max(line.length * 2, length + count));
+                }
+                current.get(line, length, count);
+                length += count;
+                found |= count > 0;
+
+                if (end < limit) {
+                    current.position(end + 1);
+                    found = true;
+                    break;
+                }
+                chunk++;
+                current = chunk < chunks.size() ? chunks.get(chunk).duplicate() : null;
+            }
+
+            if (!found) {
+                return false;
+            }
+            if (length > 0 && line[length - 1] == '\r') {
+                length--;
+            }
+            lineLength = length;
+            return true;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String result = new String(line, 0, lineLength, StandardCharsets.UTF_8);
+            lineLength = -1;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,463 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.platformutil.io;
+
+import com.sun.istack.internal.NotNull;
+import org.apache.commons.lang3.Validate;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/11/04 10:30
+ * 基于WatchService的目录监听，替代轮询isFileExists、修改时间：
+ *  1. 可递归监听子目录，新建的子目录自动注册，其中已有的文件补发CREATED事件
+ *  2. 防抖：同一路径的连续变更合并为一个事件，在debounce时间内没有新变更才分发；同一时刻到期的事件一批分发
+ *  3. 事件在独立的分发线程池中回调，监听线程只负责收集，回调慢不会导致操作系统丢弃事件
+ *  4. 轮询兜底：WatchService本身是轮询实现（如macOS）、注册失败或指定polling时，按pollInterval扫描并比较修改时间和大小
+ *
+ * 用法：new FileWatcher(listener).recursive(true).watch(dir).start()，不再使用时close
+ */
+public class FileWatcher implements Closeable {
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private final FileChangeListener listener;
+    private final List<Path> roots = new ArrayList<>();
+
+    private boolean recursive;
+    private long debounceNanos = TimeUnit.MILLISECONDS.toNanos(200);
+    private long pollIntervalNanos = TimeUnit.SECONDS.toNanos(2);
+    private boolean polling;
+    private int dispatchThreads = 1;
+
+    private Thread thread;
+    private ExecutorService dispatcher;
+    private volatile boolean running;
+
+    /**
+     * 以下只在监听线程中访问
+     * */
+    private WatchService watchService;
+    private final Map<WatchKey, Path> keys = new HashMap<>();
+    private Map<Path, FileState> snapshot;
+    private final LinkedHashMap<Path, Pending> pending = new LinkedHashMap<>();
+
+    public FileWatcher(@NotNull FileChangeListener listener) {
+        Validate.notNull(listener);
+        this.listener = listener;
+    }
+
+    /**
+     * 是否监听子目录，默认否
+     * */
+    public FileWatcher recursive(boolean recursive) {
+        checkNotStarted();
+        this.recursive = recursive;
+        return this;
+    }
+
+    /**
+     * 防抖时间，默认200毫秒，0表示不合并
+     * */
+    public FileWatcher debounce(long time, @NotNull TimeUnit unit) {
+        Validate.isTrue(time >= 0, "debounce must not be negative");
+        checkNotStarted();
+        this.debounceNanos = unit.toNanos(time);
+        return this;
+    }
+
+    /**
+     * 强制使用轮询，用于NFS等本地通知不可靠的文件系统
+     * */
+    public FileWatcher polling(boolean polling) {
+        checkNotStarted();
+        this.polling = polling;
+        return this;
+    }
+
+    /**
+     * 轮询间隔，默认2秒
+     * */
+    public FileWatcher pollInterval(long time, @NotNull TimeUnit unit) {
+        Validate.isTrue(time > 0, "pollInterval must be positive");
+        checkNotStarted();
+        this.pollIntervalNanos = unit.toNanos(time);
+        return this;
+    }
+
+    /**
+     * 分发线程数，默认1个，此时回调按批次顺序执行
+     * */
+    public FileWatcher dispatchThreads(int dispatchThreads) {
+        Validate.isTrue(dispatchThreads > 0, "dispatchThreads must be positive");
+        checkNotStarted();
+        this.dispatchThreads = dispatchThreads;
+        return this;
+    }
+
+    public FileWatcher watch(@NotNull File dir) {
+        Validate.isTrue(FileUtil.isDirExists(dir), dir + " is not exist or not a dir");
+        checkNotStarted();
+        roots.add(dir.getAbsoluteFile().toPath());
+        return this;
+    }
+
+    public synchronized FileWatcher start() throws IOException {
+        checkNotStarted();
+        Validate.validState(!roots.isEmpty(), "No directory to watch");
+
+        if (!polling) {
+            polling = !startNative();
+        }
+        if (polling) {
+            snapshot = scan();
+        }
+
+        final int id = SEQUENCE.incrementAndGet();
+        final AtomicInteger threads = new AtomicInteger();
+        dispatcher = Executors.newFixedThreadPool(dispatchThreads, r -> {
+            Thread dispatch = new Thread(r, "file-watcher-" + id + "-dispatch-" + threads.incrementAndGet());
+            dispatch.setDaemon(true);
+            return dispatch;
+        });
+
+        running = true;
+        thread = new Thread(this::run, "file-watcher-" + id);
+        thread.setDaemon(true);
+        thread.start();
+        return this;
+    }
+
+    /**
+     * 是否在使用轮询，start之后才有意义
+     * */
+    public synchronized boolean isPolling() {
+        return polling;
+    }
+
+    /**
+     * 停止监听，尚未到期的事件丢弃，正在执行的回调不中断
+     * */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        thread.interrupt();
+        if (watchService != null) {
+            watchService.close();
+        }
+        dispatcher.shutdown();
+    }
+
+    private void checkNotStarted() {
+        Validate.validState(thread == null, "FileWatcher already started");
+    }
+
+    /**
+     * 返回false表示本地通知不可用，需要轮询
+     * */
+    private boolean startNative() throws IOException {
+        WatchService service;
+        try {
+            service = FileSystems.getDefault().newWatchService();
+        } catch (UnsupportedOperationException e) {
+            return false;
+        }
+        if (service.getClass().getName().endsWith("PollingWatchService")) {
+            service.close();
+            return false;
+        }
+
+        watchService = service;
+        try {
+            for (Path root : roots) {
+                register(root, null);
+            }
+        } catch (IOException | UnsupportedOperationException e) {
+            keys.clear();
+            watchService.close();
+            watchService = null;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 注册目录（递归时包括子目录），created不为null时为目录中已有的文件补发CREATED事件
+     * */
+    private void register(Path dir, final List<Path> created) throws IOException {
+        if (!recursive) {
+            keys.put(dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY), dir);
+            return;
+        }
+
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path subDir, BasicFileAttributes attrs) throws IOException {
+                keys.put(subDir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY), subDir);
+                if (created != null && !subDir.equals(dir)) {
+                    created.add(subDir);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (created != null) {
+                    created.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void run() {
+        long nextPoll = System.nanoTime() + pollIntervalNanos;
+        try {
+            while (running) {
+                long now = System.nanoTime();
+                long wait = pending.isEmpty() ? Long.MAX_VALUE : pending.values().iterator().next().deadline - now;
+                if (polling) {
+                    wait = Math.min(wait, nextPoll - now);
+                }
+
+                if (polling) {
+                    if (wait > 0) {
+                        TimeUnit.NANOSECONDS.sleep(wait);
+                    }
+                    if (System.nanoTime() - nextPoll >= 0) {
+                        poll();
+                        nextPoll = System.nanoTime() + pollIntervalNanos;
+                    }
+                } else {
+                    WatchKey key = wait == Long.MAX_VALUE ? watchService.take()
+                        : watchService.poll(Math.max(wait, 0), TimeUnit.NANOSECONDS);
+                    while (key != null) {
+                        process(key);
+                        key = watchService.poll();
+                    }
+                }
+                dispatchDue();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // close
+        }
+    }
+
+    private void process(WatchKey key) {
+        Path dir = keys.get(key);
+        if (dir == null) {
+            key.cancel();
+            return;
+        }
+
+        for (WatchEvent<?> event : key.pollEvents()) {
+            WatchEvent.Kind<?> kind = event.kind();
+            if (kind == StandardWatchEventKinds.OVERFLOW) {
+                offer(dir, FileChangeEvent.Kind.OVERFLOW);
+                continue;
+            }
+
+            Path child = dir.resolve((Path) event.context());
+            if (kind == StandardWatchEventKinds.ENTRY_CREATE) {
+                offer(child, FileChangeEvent.Kind.CREATED);
+                if (recursive && Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+                    List<Path> created = new ArrayList<>();
+                    try {
+                        register(child, created);
+                    } catch (IOException e) {
+                        // 刚创建就被删除，后续会收到DELETE事件
+                    }
+                    for (Path path : created) {
+                        offer(path, FileChangeEvent.Kind.CREATED);
+                    }
+                }
+            } else if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
+                offer(child, FileChangeEvent.Kind.DELETED);
+            } else {
+                offer(child, FileChangeEvent.Kind.MODIFIED);
+            }
+        }
+
+        if (!key.reset()) {
+            keys.remove(key);
+        }
+    }
+
+    private void poll() {
+        Map<Path, FileState> current = scan();
+        for (Map.Entry<Path, FileState> entry : current.entrySet()) {
+            FileState previous = snapshot.remove(entry.getKey());
+            if (previous == null) {
+                offer(entry.getKey(), FileChangeEvent.Kind.CREATED);
+            } else if (!previous.equals(entry.getValue())) {
+                offer(entry.getKey(), FileChangeEvent.Kind.MODIFIED);
+            }
+        }
+        for (Path deleted : snapshot.keySet()) {
+            offer(deleted, FileChangeEvent.Kind.DELETED);
+        }
+        snapshot = current;
+    }
+
+    private Map<Path, FileState> scan() {
+        final Map<Path, FileState> states = new HashMap<>();
+        for (final Path root : roots) {
+            try {
+                Files.walkFileTree(root, EnumSet.noneOf(FileVisitOption.class),
+                    recursive ? Integer.MAX_VALUE : 1, new SimpleFileVisitor<Path>() {
+                        @Override
+                        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                            if (!dir.equals(root)) {
+                                states.put(dir, new FileState(attrs));
+                            }
+                            return FileVisitResult.CONTINUE;
+                        }
+
+                        @Override
+                        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                            states.put(file, new FileState(attrs));
+                            return FileVisitResult.CONTINUE;
+                        }
+
+                        @Override
+                        public FileVisitResult visitFileFailed(Path file, IOException e) {
+                            return FileVisitResult.CONTINUE;
+                        }
+                    });
+            } catch (IOException e) {
+                // 监听目录本身被删除，其中的文件都会报DELETED
+            }
+        }
+        return states;
+    }
+
+    private void offer(Path path, FileChangeEvent.Kind kind) {
+        Pending previous = pending.remove(path);
+        if (previous != null) {
+            kind = FileChangeEvent.merge(previous.kind, kind);
+            if (kind == null) {
+                return;
+            }
+        }
+        pending.put(path, new Pending(kind, System.nanoTime() + debounceNanos));
+    }
+
+    /**
+     * pending按最后一次变更的先后排序，从头取出所有到期的事件
+     * */
+    private void dispatchDue() {
+        long now = System.nanoTime();
+        List<FileChangeEvent> due = new ArrayList<>();
+        for (Iterator<Map.Entry<Path, Pending>> it = pending.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Path, Pending> entry = it.next();
+            if (entry.getValue().deadline - now > 0) {
+                break;
+            }
+            due.add(new FileChangeEvent(entry.getKey(), entry.getValue().kind));
+            it.remove();
+        }
+
+        if (!due.isEmpty()) {
+            dispatcher.execute(() -> {
+                try {
+                    listener.onChange(due);
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            });
+        }
+    }
+
+    private static final class Pending {
+        private final FileChangeEvent.Kind kind;
+        private final long deadline;
+
+        private Pending(FileChangeEvent.Kind kind, long deadline) {
+            this.kind = kind;
+            this.deadline = deadline;
+        }
+    }
+
+    /**
+     * 轮询时比较的文件状态
+     * */
+    private static final class FileState {
+        private final long modified;
+        private final long size;
+        private final boolean directory;
+
+        private FileState(BasicFileAttributes attrs) {
+            this.modified = attrs.lastModifiedTime().toMillis();
+            this.size = attrs.isDirectory() ? 0 : attrs.size();
+            this.directory = attrs.isDirectory();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof FileState)) {
+                return false;
+            }
+            FileState other = (FileState) o;
+            return modified == other.modified && size == other.size && directory == other.directory;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(modified) * 31 + Long.hashCode(size);
+        }
+    }
+}
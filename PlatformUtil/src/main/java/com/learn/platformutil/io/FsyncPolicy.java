@@ -0,0 +1,44 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.platformutil.io;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/11/01 14:30
+ * FileUtil.writeAtomic、AppendWriter写入后的刷盘策略：
+ *  1. NONE：只写入操作系统缓存，进程崩溃（如被OOM kill）不丢数据，但断电可能丢失
+ *  2. DATA：刷新文件内容（fdatasync），不保证修改时间等元数据
+ *  3. ALL：刷新文件内容及元数据，writeAtomic还会在重命名后刷新所在目录，保证重命名本身持久化
+ */
+public enum FsyncPolicy {
+    NONE,
+    DATA,
+    ALL;
+
+    void force(FileChannel channel) throws IOException {
+        if (this != NONE) {
+            channel.force(this == ALL);
+        }
+    }
+}
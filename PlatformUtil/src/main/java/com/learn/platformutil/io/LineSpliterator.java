@@ -0,0 +1,208 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.platformutil.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/11/01 10:20
+ * FileUtil.lines、parallelLines的实现，按UTF-8逐行读取文件中[position, end)的字节范围：
+ *  1. 通过FileChannel按位置读取到可复用的缓冲区，所有拆分共享同一个channel（按位置读取是线程安全的）
+ *  2. trySplit在剩余范围的中点之后找到第一个'\n'，以其后一字节为界拆出前半段，保证每行只属于一个分片
+ *  3. 行尾为"\n"或"\r\n"，读取失败时抛出UncheckedIOException
+ */
+class LineSpliterator implements Spliterator<String> {
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 剩余范围小于该值时不再拆分
+     * */
+    private static final long MIN_SPLIT_SIZE = 256 * 1024;
+
+    private final FileChannel channel;
+    private final long end;
+    private final ByteBuffer buffer;
+
+    /**
+     * 下一次读入缓冲区的文件位置，已消费的位置为next - buffer.remaining()
+     * */
+    private long next;
+    private byte[] line = new byte[256];
+
+    LineSpliterator(FileChannel channel, long position, long end) {
+        this.channel = channel;
+        this.next = position;
+        this.end = end;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        this.buffer.flip();
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+        String line = readLine();
+        if (line == null) {
+            return false;
+        }
+        action.accept(line);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super String> action) {
+        String line;
+        while ((line = readLine()) != null) {
+            action.accept(line);
+        }
+    }
+
+    @Override
+    public Spliterator<String> trySplit() {
+        long position = next - buffer.remaining();
+        if (end - position < MIN_SPLIT_SIZE) {
+            return null;
+        }
+
+        long split;
+        try {
+            split = nextLineStart(position + (end - position) / 2);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (split >= end) {
+            return null;
+        }
+
+        LineSpliterator prefix = new LineSpliterator(channel, position, split);
+        next = split;
+        buffer.clear().flip();
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - next + buffer.remaining();
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+
+    private String readLine() {
+        int length = 0;
+        boolean found = false;
+        byte[] array = buffer.array();
+
+        while (true) {
+            if (!buffer.hasRemaining() && !fill()) {
+                break;
+            }
+
+            int start = buffer.position();
+            int limit = buffer.limit();
+            int index = start;
+            while (index < limit && array[index] != '\n') {
+                index++;
+            }
+
+            if (index < limit && length == 0) {
+                // 整行都在缓冲区内，直接解码
+                buffer.position(index + 1);
+                int lineEnd = index > start && array[index - 1] == '\r' ? index - 1 : index;
+                return new String(array, start, lineEnd - start, StandardCharsets.UTF_8);
+            }
+
+            int count = index - start;
+            if (length + count > line.length) {
+                line = Arrays.copyOf(line, Math.max(line.length * 2, length + count));
+            }
+            System.arraycopy(array, start, line, length, count);
+            length += count;
+            found = true;
+
+            if (index < limit) {
+                buffer.position(index + 1);
+                break;
+            }
+            buffer.position(limit);
+        }
+
+        if (!found) {
+            return null;
+        }
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        return new String(line, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private boolean fill() {
+        if (next >= end) {
+            return false;
+        }
+
+        buffer.clear();
+        buffer.limit((int) Math.min(buffer.capacity(), end - next));
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, next + buffer.position()) < 0) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.flip();
+        next += buffer.limit();
+        return buffer.hasRemaining();
+    }
+
+    /**
+     * from之后（含）第一个'\n'的下一字节位置，找不到时返回end
+     * */
+    private long nextLineStart(long from) throws IOException {
+        ByteBuffer probe = ByteBuffer.allocate(8 * 1024);
+        long position = from;
+        while (position < end) {
+            probe.clear();
+            probe.limit((int) Math.min(probe.capacity(), end - position));
+            int read = channel.read(probe, position);
+            if (read < 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return end;
+    }
+}
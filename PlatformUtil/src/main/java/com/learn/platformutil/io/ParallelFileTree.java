@@ -0,0 +1,392 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.platformutil.io;
+
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemLoopException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/10/31 16:10
+ * FileUtil.copyDirParallel、deleteDirParallel的fork-join实现：
+ *  1. 每个目录一个任务，子目录再拆分为子任务；目录中的文件每FILE_BATCH个一组并行处理
+ *  2. 单个文件失败不中断其余文件，异常汇总后在结束时一并抛出
+ *  3. 复制跟随符号链接（与copyDir一致，并检测目录环），删除不跟随符号链接，只删除链接本身
+ *  4. FileUtil.scanParallel同样每个目录一个任务，不跟随符号链接，结果无序
+ */
+class ParallelFileTree {
+    private static final int FILE_BATCH = 32;
+
+    /**
+     * 汇总异常中最多保留的明细数
+     * */
+    private static final int MAX_SUPPRESSED = 100;
+
+    static void copy(Path source, Path target, CopyOptions options, int parallelism, FileProgressListener listener)
+        throws IOException {
+        Context context = new Context(listener);
+        run(new CopyTask(source, target, new Ancestor(fileKey(source), null), options, context), parallelism);
+        context.throwIfFailed("copy " + source + " to " + target);
+    }
+
+    static void delete(Path dir, int parallelism, FileProgressListener listener) throws IOException {
+        Context context = new Context(listener);
+        run(new DeleteTask(dir, context), parallelism);
+        context.throwIfFailed("delete " + dir);
+    }
+
+    static List<Path> scan(Path root, BiPredicate<Path, BasicFileAttributes> filter, int maxDepth, int parallelism)
+        throws IOException {
+        Context context = new Context(null);
+        ConcurrentLinkedQueue<Path> matched = new ConcurrentLinkedQueue<>();
+        if (maxDepth > 0) {
+            run(new ScanTask(root, 1, filter, maxDepth, matched, context), parallelism);
+        }
+        context.throwIfFailed("scan " + root);
+        return new ArrayList<>(matched);
+    }
+
+    private static void run(RecursiveAction task, int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(task);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static Object fileKey(Path dir) throws IOException {
+        return Files.readAttributes(dir, BasicFileAttributes.class).fileKey();
+    }
+
+    /**
+     * 进度与异常，各任务共享
+     * */
+    private static final class Context {
+        private final FileProgressListener listener;
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final ConcurrentLinkedQueue<IOException> errors = new ConcurrentLinkedQueue<>();
+
+        private Context(FileProgressListener listener) {
+            this.listener = listener;
+        }
+
+        private void done(Path path) {
+            long count = completed.incrementAndGet();
+            if (listener != null) {
+                listener.onProgress(path, count);
+            }
+        }
+
+        private void fail(IOException e) {
+            if (failures.incrementAndGet() <= MAX_SUPPRESSED) {
+                errors.add(e);
+            }
+        }
+
+        private void throwIfFailed(String action) throws IOException {
+            int count = failures.get();
+            if (count == 0) {
+                return;
+            }
+            IOException e = new IOException("Failed to " + action + ": " + count + " error(s)"
+                + (count > MAX_SUPPRESSED ? ", first " + MAX_SUPPRESSED + " attached" : ""));
+            for (IOException error : errors) {
+                e.addSuppressed(error);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 复制时当前目录的祖先链，用于检测符号链接形成的环
+     * */
+    private static final class Ancestor {
+        private final Object key;
+        private final Ancestor parent;
+
+        private Ancestor(Object key, Ancestor parent) {
+            this.key = key;
+            this.parent = parent;
+        }
+
+        private boolean contains(Object key) {
+            if (key == null) {
+                return false;
+            }
+            for (Ancestor a = this; a != null; a = a.parent) {
+                if (Objects.equals(a.key, key)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class CopyTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Path source;
+        private final Path target;
+        private final Ancestor ancestors;
+        private final CopyOptions options;
+        private final Context context;
+
+        private CopyTask(Path source, Path target, Ancestor ancestors, CopyOptions options, Context context) {
+            this.source = source;
+            this.target = target;
+            this.ancestors = ancestors;
+            this.options = options;
+            this.context = context;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                Files.createDirectories(target);
+            } catch (IOException e) {
+                context.fail(e);
+                return;
+            }
+
+            List<ForkJoinTask<?>> subtasks = new ArrayList<>();
+            List<Path> files = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(source)) {
+                for (Path entry : entries) {
+                    BasicFileAttributes attrs;
+                    try {
+                        attrs = Files.readAttributes(entry, BasicFileAttributes.class);
+                    } catch (IOException e) {
+                        context.fail(e);
+                        continue;
+                    }
+
+                    if (attrs.isDirectory()) {
+                        if (ancestors.contains(attrs.fileKey())) {
+                            context.fail(new FileSystemLoopException(entry.toString()));
+                            continue;
+                        }
+                        subtasks.add(new CopyTask(entry, target.resolve(entry.getFileName().toString()),
+                            new Ancestor(attrs.fileKey(), ancestors), options, context).fork());
+                    } else {
+                        files.add(entry);
+                        if (files.size() == FILE_BATCH) {
+                            subtasks.add(new CopyBatch(files, target, options, context).fork());
+                            files = new ArrayList<>();
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                context.fail(e);
+            } catch (DirectoryIteratorException e) {
+                context.fail(e.getCause());
+            }
+
+            new CopyBatch(files, target, options, context).compute();
+            for (ForkJoinTask<?> subtask : subtasks) {
+                subtask.join();
+            }
+
+            if (options.isPreserveAttributes()) {
+                try {
+                    FileUtil.copyAttributes(source, target, Files.readAttributes(source, BasicFileAttributes.class));
+                } catch (IOException e) {
+                    context.fail(e);
+                }
+            }
+        }
+    }
+
+    private static final class CopyBatch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Path> files;
+        private final Path target;
+        private final CopyOptions options;
+        private final Context context;
+
+        private CopyBatch(List<Path> files, Path target, CopyOptions options, Context context) {
+            this.files = files;
+            this.target = target;
+            this.options = options;
+            this.context = context;
+        }
+
+        @Override
+        protected void compute() {
+            for (Path file : files) {
+                Path copy = target.resolve(file.getFileName().toString());
+                try {
+                    FileUtil.transfer(file, copy, options.getBufferSize());
+                    if (options.isPreserveAttributes()) {
+                        FileUtil.copyAttributes(file, copy, Files.readAttributes(file, BasicFileAttributes.class));
+                    }
+                    context.done(file);
+                } catch (IOException e) {
+                    context.fail(e);
+                }
+            }
+        }
+    }
+
+    private static final class DeleteTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Path dir;
+        private final Context context;
+
+        private DeleteTask(Path dir, Context context) {
+            this.dir = dir;
+            this.context = context;
+        }
+
+        @Override
+        protected void compute() {
+            List<ForkJoinTask<?>> subtasks = new ArrayList<>();
+            List<Path> files = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+                for (Path entry : entries) {
+                    if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                        subtasks.add(new DeleteTask(entry, context).fork());
+                    } else {
+                        files.add(entry);
+                        if (files.size() == FILE_BATCH) {
+                            subtasks.add(new DeleteBatch(files, context).fork());
+                            files = new ArrayList<>();
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                context.fail(e);
+            } catch (DirectoryIteratorException e) {
+                context.fail(e.getCause());
+            }
+
+            new DeleteBatch(files, context).compute();
+            for (ForkJoinTask<?> subtask : subtasks) {
+                subtask.join();
+            }
+            delete(dir, context);
+        }
+    }
+
+    private static final class DeleteBatch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Path> files;
+        private final Context context;
+
+        private DeleteBatch(List<Path> files, Context context) {
+            this.files = files;
+            this.context = context;
+        }
+
+        @Override
+        protected void compute() {
+            for (Path file : files) {
+                delete(file, context);
+            }
+        }
+    }
+
+    /**
+     * 扫描dir的直接子项，depth为子项的深度；子目录无论是否匹配都继续扫描
+     * */
+    private static final class ScanTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Path dir;
+        private final int depth;
+        private final BiPredicate<Path, BasicFileAttributes> filter;
+        private final int maxDepth;
+        private final ConcurrentLinkedQueue<Path> matched;
+        private final Context context;
+
+        private ScanTask(Path dir, int depth, BiPredicate<Path, BasicFileAttributes> filter, int maxDepth,
+            ConcurrentLinkedQueue<Path> matched, Context context) {
+            this.dir = dir;
+            this.depth = depth;
+            this.filter = filter;
+            this.maxDepth = maxDepth;
+            this.matched = matched;
+            this.context = context;
+        }
+
+        @Override
+        protected void compute() {
+            List<ForkJoinTask<?>> subtasks = new ArrayList<>();
+            List<Path> found = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+                for (Path entry : entries) {
+                    BasicFileAttributes attrs;
+                    try {
+                        attrs = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    } catch (IOException e) {
+                        context.fail(e);
+                        continue;
+                    }
+
+                    if (filter.test(entry, attrs)) {
+                        found.add(entry);
+                    }
+                    if (attrs.isDirectory() && depth < maxDepth) {
+                        subtasks.add(new ScanTask(entry, depth + 1, filter, maxDepth, matched, context).fork());
+                    }
+                }
+            } catch (IOException e) {
+                context.fail(e);
+            } catch (DirectoryIteratorException e) {
+                context.fail(e.getCause());
+            }
+
+            matched.addAll(found);
+            for (ForkJoinTask<?> subtask : subtasks) {
+                subtask.join();
+            }
+        }
+    }
+
+    private static void delete(Path path, Context context) {
+        try {
+            Files.delete(path);
+            context.done(path);
+        } catch (IOException e) {
+            context.fail(e);
+        }
+    }
+}
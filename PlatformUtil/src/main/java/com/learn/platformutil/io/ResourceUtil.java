@@ -19,13 +19,17 @@ import com.google.common.base.Charsets;
 import com.google.common.io.Resources;
 import org.apache.commons.lang3.ClassUtils;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * <p> Title: </p>
@@ -83,6 +87,28 @@ public class ResourceUtil {
         return Resources.readLines(asUrl(contextClass, resourceName), Charsets.UTF_8);
     }
 
+    /**
+     * 按行延迟读取资源（UTF-8），使用完毕须关闭Stream
+     * */
+    public static Stream<String> lines(String resourceName) throws IOException {
+        return lines(asStream(resourceName));
+    }
+
+    public static Stream<String> lines(Class<?> contextClass, String resourceName) throws IOException {
+        return lines(asStream(contextClass, resourceName));
+    }
+
+    private static Stream<String> lines(InputStream in) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, Charsets.UTF_8), LineSpliterator.BUFFER_SIZE);
+        return reader.lines().onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
     /**
      * 打开所有同名文件
      * */
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.platformutil.io;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/11/05 10:00
+ * FileUtil.syncDir的选项：
+ *  1. checksum：大小相同时比较内容摘要而不是修改时间，较慢，用于修改时间不可信的场景
+ *  2. deleteExtraneous：删除目标目录中源目录没有的文件和目录
+ *  3. parallelism：同时比较、复制的文件数
+ *  同步总是保留修改时间等属性，否则下次同步无法按修改时间判断
+ */
+public class SyncOptions {
+    public static final String DEFAULT_CHECKSUM_ALGORITHM = "MD5";
+
+    private boolean checksum;
+    private String checksumAlgorithm = DEFAULT_CHECKSUM_ALGORITHM;
+    private boolean deleteExtraneous;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int bufferSize = CopyOptions.DEFAULT_BUFFER_SIZE;
+
+    public boolean isChecksum() {
+        return checksum;
+    }
+
+    public SyncOptions checksum(boolean checksum) {
+        this.checksum = checksum;
+        return this;
+    }
+
+    public String getChecksumAlgorithm() {
+        return checksumAlgorithm;
+    }
+
+    public SyncOptions checksumAlgorithm(String checksumAlgorithm) {
+        Validate.notBlank(checksumAlgorithm);
+        this.checksumAlgorithm = checksumAlgorithm;
+        return this;
+    }
+
+    public boolean isDeleteExtraneous() {
+        return deleteExtraneous;
+    }
+
+    public SyncOptions deleteExtraneous(boolean deleteExtraneous) {
+        this.deleteExtraneous = deleteExtraneous;
+        return this;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public SyncOptions parallelism(int parallelism) {
+        Validate.isTrue(parallelism > 0, "parallelism must be positive");
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public SyncOptions bufferSize(int bufferSize) {
+        Validate.isTrue(bufferSize > 0, "bufferSize must be positive");
+        this.bufferSize = bufferSize;
+        return this;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.platformutil.io;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/11/05 10:00
+ * FileUtil.syncDir的统计结果
+ */
+public class SyncResult {
+    private final long copied;
+    private final long copiedBytes;
+    private final long skipped;
+    private final long deleted;
+
+    SyncResult(long copied, long copiedBytes, long skipped, long deleted) {
+        this.copied = copied;
+        this.copiedBytes = copiedBytes;
+        this.skipped = skipped;
+        this.deleted = deleted;
+    }
+
+    /**
+     * 新增或变化而复制的文件数
+     * */
+    public long getCopied() {
+        return copied;
+    }
+
+    public long getCopiedBytes() {
+        return copiedBytes;
+    }
+
+    /**
+     * 未变化而跳过的文件数
+     * */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * 删除的多余文件数（包括目录）
+     * */
+    public long getDeleted() {
+        return deleted;
+    }
+
+    @Override
+    public String toString() {
+        return "SyncResult{copied=" + copied + ", copiedBytes=" + copiedBytes + ", skipped=" + skipped
+            + ", deleted=" + deleted + "}";
+    }
+}
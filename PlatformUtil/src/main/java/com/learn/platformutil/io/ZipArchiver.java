@@ -0,0 +1,674 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.platformutil.io;
+
+import com.google.common.base.Throwables;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/11/05 15:10
+ * FileUtil.zipDir、unzip、gzip、gunzip的实现：
+ *  1. zip由ZipWriter直接写出（ZipOutputStream无法写入预先压缩好的数据），文件通过FileChannel读取，
+ *     串行时边读边压缩，写完后回填本地文件头中的CRC和大小；超过4GB的条目或文件使用Zip64
+ *  2. 并行zip：不超过PARALLEL_ENTRY_LIMIT的文件在线程池中压缩到内存，按遍历顺序依次写出，
+ *     同时在途的条目不超过parallelism的2倍以限制内存；更大的文件轮到时由写线程直接流式压缩
+ *  3. 并行gzip：按GZIP_BLOCK_SIZE分块，每块压缩为独立的gzip member后拼接（RFC 1952允许多个member，GZIPInputStream可直接读取）
+ *  4. 输出先写入同目录下的临时文件，完成后原子重命名
+ *  5. unzip先检查所有条目，任何条目解压后会落在目标目录之外（zip slip）则整体拒绝
+ */
+class ZipArchiver {
+    static final int PARALLEL_ENTRY_LIMIT = 4 * 1024 * 1024;
+    static final int GZIP_BLOCK_SIZE = 1024 * 1024;
+
+    /**
+     * 达到该大小的文件预留Zip64扩展字段，留出deflate最坏情况下的膨胀空间
+     * */
+    private static final long ZIP64_ENTRY_THRESHOLD = 0xF0000000L;
+
+    static void zip(Path dir, Path zipFile, ZipOptions options) throws IOException {
+        List<Item> items = collect(dir, zipFile);
+
+        Path temp = FileUtil.createSiblingTempFile(zipFile);
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ZipWriter writer = new ZipWriter(out, options);
+                if (options.getParallelism() == 1) {
+                    for (Item item : items) {
+                        writer.write(item);
+                    }
+                } else {
+                    zipParallel(items, writer, options);
+                }
+                writer.finish();
+            }
+            FileUtil.moveReplacing(temp, zipFile);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    private static void zipParallel(List<Item> items, ZipWriter writer, ZipOptions options) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(options.getParallelism());
+        try {
+            Deque<Object> window = new ArrayDeque<>();
+            for (Item item : items) {
+                if (!item.directory && item.size <= PARALLEL_ENTRY_LIMIT) {
+                    window.add(pool.submit(() -> compress(item, options)));
+                } else {
+                    window.add(item);
+                }
+                if (window.size() >= options.getParallelism() * 2) {
+                    writeNext(window, writer);
+                }
+            }
+            while (!window.isEmpty()) {
+                writeNext(window, writer);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeNext(Deque<Object> window, ZipWriter writer) throws IOException {
+        Object next = window.poll();
+        if (next instanceof Item) {
+            writer.write((Item) next);
+        } else {
+            writer.write(await((Future<Compressed>) next));
+        }
+    }
+
+    private static Compressed compress(Item item, ZipOptions options) throws IOException {
+        byte[] input = new byte[options.getBufferSize()];
+        ByteArrayOutputStream output = new ByteArrayOutputStream((int) Math.min(item.size, input.length) + 64);
+        CRC32 crc = new CRC32();
+        Deflater deflater = new Deflater(options.getLevel(), true);
+        long size;
+        try {
+            size = deflate(item, deflater, crc, input, new byte[input.length], output::write);
+        } finally {
+            deflater.end();
+        }
+        return new Compressed(item, output.toByteArray(), (int) crc.getValue(), size);
+    }
+
+    /**
+     * 读取文件（最多读到遍历时的大小）并压缩，返回读取的字节数
+     * */
+    private static long deflate(Item item, Deflater deflater, CRC32 crc, byte[] input, byte[] output, Sink sink)
+        throws IOException {
+        long read = 0;
+        try (FileChannel in = FileChannel.open(item.path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.wrap(input);
+            while (read < item.size) {
+                buffer.clear();
+                buffer.limit((int) Math.min(input.length, item.size - read));
+                int n = in.read(buffer);
+                if (n < 0) {
+                    break;
+                }
+                crc.update(input, 0, n);
+                read += n;
+                deflater.setInput(input, 0, n);
+                while (!deflater.needsInput()) {
+                    sink.write(output, 0, deflater.deflate(output));
+                }
+            }
+        }
+        deflater.finish();
+        while (!deflater.finished()) {
+            sink.write(output, 0, deflater.deflate(output));
+        }
+        return read;
+    }
+
+    private static List<Item> collect(Path dir, Path exclude) throws IOException {
+        List<Item> items = new ArrayList<>();
+        Files.walkFileTree(dir, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE,
+            new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path subDir, BasicFileAttributes attrs) {
+                    if (!subDir.equals(dir)) {
+                        items.add(new Item(subDir, entryName(dir, subDir) + "/", true, 0,
+                            attrs.lastModifiedTime().toMillis()));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (!file.equals(exclude)) {
+                        items.add(new Item(file, entryName(dir, file), false, attrs.size(),
+                            attrs.lastModifiedTime().toMillis()));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path subDir, IOException exc) throws IOException {
+                    if (exc != null) {
+                        throw exc;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        return items;
+    }
+
+    private static String entryName(Path dir, Path path) {
+        StringBuilder name = new StringBuilder();
+        for (Path element : dir.relativize(path)) {
+            if (name.length() > 0) {
+                name.append('/');
+            }
+            name.append(element.toString());
+        }
+        return name.toString();
+    }
+
+    static void unzip(Path zipFile, Path dir, int bufferSize) throws IOException {
+        Path root = dir.toAbsolutePath().normalize();
+        try (ZipFile zip = new ZipFile(zipFile.toFile())) {
+            List<ZipEntry> entries = new ArrayList<>(zip.size());
+            for (Enumeration<? extends ZipEntry> it = zip.entries(); it.hasMoreElements(); ) {
+                ZipEntry entry = it.nextElement();
+                resolve(root, entry);
+                entries.add(entry);
+            }
+
+            Files.createDirectories(root);
+            byte[] buffer = new byte[bufferSize];
+            for (ZipEntry entry : entries) {
+                Path path = resolve(root, entry);
+                if (entry.isDirectory()) {
+                    Files.createDirectories(path);
+                    continue;
+                }
+
+                Files.createDirectories(path.getParent());
+                try (InputStream in = zip.getInputStream(entry);
+                     FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                         StandardOpenOption.TRUNCATE_EXISTING)) {
+                    int n;
+                    while ((n = in.read(buffer)) > 0) {
+                        ByteBuffer data = ByteBuffer.wrap(buffer, 0, n);
+                        while (data.hasRemaining()) {
+                            out.write(data);
+                        }
+                    }
+                }
+                if (entry.getTime() != -1) {
+                    Files.setLastModifiedTime(path, FileTime.fromMillis(entry.getTime()));
+                }
+            }
+
+            // 目录的修改时间在其中的文件解压后才能设置
+            for (ZipEntry entry : entries) {
+                if (entry.isDirectory() && entry.getTime() != -1) {
+                    Files.setLastModifiedTime(resolve(root, entry), FileTime.fromMillis(entry.getTime()));
+                }
+            }
+        }
+    }
+
+    /**
+     * zip slip防护：条目解压后的路径必须在目标目录之内
+     * */
+    private static Path resolve(Path root, ZipEntry entry) throws IOException {
+        Path path = root.resolve(entry.getName()).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new IOException("Illegal zip entry outside of target dir: " + entry.getName());
+        }
+        return path;
+    }
+
+    static void gzip(Path from, Path to, ZipOptions options) throws IOException {
+        Path temp = FileUtil.createSiblingTempFile(to);
+        try {
+            try (FileChannel in = FileChannel.open(from, StandardOpenOption.READ);
+                 FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                long size = in.size();
+                if (options.getParallelism() == 1 || size <= GZIP_BLOCK_SIZE) {
+                    try (OutputStream gzip = new LevelGZIPOutputStream(Channels.newOutputStream(out),
+                        options.getBufferSize(), options.getLevel())) {
+                        byte[] buffer = new byte[options.getBufferSize()];
+                        ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+                        int n;
+                        while ((n = in.read(wrapped)) >= 0) {
+                            gzip.write(buffer, 0, n);
+                            wrapped.clear();
+                        }
+                    }
+                } else {
+                    gzipParallel(in, size, out, options);
+                }
+            }
+            FileUtil.moveReplacing(temp, to);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    private static void gzipParallel(FileChannel in, long size, FileChannel out, ZipOptions options)
+        throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(options.getParallelism());
+        try {
+            Deque<Future<byte[]>> window = new ArrayDeque<>();
+            for (long position = 0; position < size; position += GZIP_BLOCK_SIZE) {
+                long start = position;
+                int length = (int) Math.min(GZIP_BLOCK_SIZE, size - position);
+                window.add(pool.submit(gzipBlock(in, start, length, options)));
+                if (window.size() >= options.getParallelism() * 2) {
+                    writeFully(out, await(window.poll()));
+                }
+            }
+            while (!window.isEmpty()) {
+                writeFully(out, await(window.poll()));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Callable<byte[]> gzipBlock(FileChannel in, long start, int length, ZipOptions options) {
+        return () -> {
+            ByteBuffer block = ByteBuffer.allocate(length);
+            while (block.hasRemaining()) {
+                if (in.read(block, start + block.position()) < 0) {
+                    break;
+                }
+            }
+            ByteArrayOutputStream member = new ByteArrayOutputStream(length / 2 + 64);
+            try (OutputStream gzip = new LevelGZIPOutputStream(member, options.getBufferSize(), options.getLevel())) {
+                gzip.write(block.array(), 0, block.position());
+            }
+            return member.toByteArray();
+        };
+    }
+
+    static OutputStream gzipOutputStream(OutputStream out, int bufferSize, int level) throws IOException {
+        return new LevelGZIPOutputStream(out, bufferSize, level);
+    }
+
+    static void gunzip(Path from, Path to, int bufferSize) throws IOException {
+        Path temp = FileUtil.createSiblingTempFile(to);
+        try {
+            try (InputStream in = new GZIPInputStream(Channels.newInputStream(
+                     FileChannel.open(from, StandardOpenOption.READ)), bufferSize);
+                 FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[bufferSize];
+                int n;
+                while ((n = in.read(buffer)) > 0) {
+                    ByteBuffer data = ByteBuffer.wrap(buffer, 0, n);
+                    while (data.hasRemaining()) {
+                        out.write(data);
+                    }
+                }
+            }
+            FileUtil.moveReplacing(temp, to);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing");
+        } catch (ExecutionException e) {
+            Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static void writeFully(FileChannel out, byte[] data) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Sink {
+        void write(byte[] data, int offset, int length) throws IOException;
+    }
+
+    private static final class Item {
+        private final Path path;
+        private final String name;
+        private final boolean directory;
+        private final long size;
+        private final long modified;
+
+        private Item(Path path, String name, boolean directory, long size, long modified) {
+            this.path = path;
+            this.name = name;
+            this.directory = directory;
+            this.size = size;
+            this.modified = modified;
+        }
+    }
+
+    private static final class Compressed {
+        private final Item item;
+        private final byte[] data;
+        private final int crc;
+        private final long size;
+
+        private Compressed(Item item, byte[] data, int crc, long size) {
+            this.item = item;
+            this.data = data;
+            this.crc = crc;
+            this.size = size;
+        }
+    }
+
+    /**
+     * GZIPOutputStream不能指定压缩级别，在写入数据前修改Deflater的级别
+     * */
+    private static final class LevelGZIPOutputStream extends GZIPOutputStream {
+        private LevelGZIPOutputStream(OutputStream out, int size, int level) throws IOException {
+            super(out, size);
+            def.setLevel(level);
+        }
+    }
+
+    /**
+     * 顺序写出zip：本地文件头、数据，最后写中央目录；文件名使用UTF-8（通用标志位11）
+     * */
+    private static final class ZipWriter {
+        private static final int LOCAL_HEADER = 0x04034b50;
+        private static final int CENTRAL_HEADER = 0x02014b50;
+        private static final int END_OF_CENTRAL = 0x06054b50;
+        private static final int ZIP64_END_OF_CENTRAL = 0x06064b50;
+        private static final int ZIP64_LOCATOR = 0x07064b50;
+        private static final int UTF8_FLAG = 0x0800;
+        private static final int VERSION = 20;
+        private static final int VERSION_ZIP64 = 45;
+        private static final long MAX_32 = 0xFFFFFFFFL;
+        private static final int MAX_16 = 0xFFFF;
+
+        private final FileChannel out;
+        private final ZipOptions options;
+        private final List<Entry> entries = new ArrayList<>();
+        private long position;
+
+        private Deflater deflater;
+        private byte[] input;
+        private byte[] output;
+
+        private ZipWriter(FileChannel out, ZipOptions options) {
+            this.out = out;
+            this.options = options;
+        }
+
+        /**
+         * 目录或流式压缩文件
+         * */
+        private void write(Item item) throws IOException {
+            if (item.directory) {
+                Entry entry = new Entry(item, ZipEntry.STORED, position, false);
+                writeLocalHeader(entry);
+                entries.add(entry);
+                return;
+            }
+
+            if (deflater == null) {
+                deflater = new Deflater(options.getLevel(), true);
+                input = new byte[options.getBufferSize()];
+                output = new byte[options.getBufferSize()];
+            }
+            Entry entry = new Entry(item, ZipEntry.DEFLATED, position, item.size >= ZIP64_ENTRY_THRESHOLD);
+            writeLocalHeader(entry);
+
+            CRC32 crc = new CRC32();
+            deflater.reset();
+            entry.size = deflate(item, deflater, crc, input, output, (data, offset, length) -> {
+                ByteBuffer buffer = ByteBuffer.wrap(data, offset, length);
+                while (buffer.hasRemaining()) {
+                    position += out.write(buffer);
+                }
+            });
+            entry.crc = (int) crc.getValue();
+            entry.compressedSize = deflater.getBytesWritten();
+            if (!entry.zip64 && (entry.size >= MAX_32 || entry.compressedSize >= MAX_32)) {
+                throw new IOException("Entry grew beyond 4GB while zipping: " + item.path);
+            }
+            patchLocalHeader(entry);
+            entries.add(entry);
+        }
+
+        /**
+         * 已压缩好的文件
+         * */
+        private void write(Compressed compressed) throws IOException {
+            Entry entry = new Entry(compressed.item, ZipEntry.DEFLATED, position, false);
+            entry.crc = compressed.crc;
+            entry.size = compressed.size;
+            entry.compressedSize = compressed.data.length;
+            writeLocalHeader(entry);
+            write(ByteBuffer.wrap(compressed.data));
+            entries.add(entry);
+        }
+
+        private void finish() throws IOException {
+            long centralStart = position;
+            for (Entry entry : entries) {
+                writeCentralHeader(entry);
+            }
+            long centralSize = position - centralStart;
+
+            boolean zip64 = entries.size() >= MAX_16 || centralStart >= MAX_32 || centralSize >= MAX_32;
+            if (zip64) {
+                long zip64End = position;
+                ByteBuffer record = header(56 + 20);
+                record.putInt(ZIP64_END_OF_CENTRAL).putLong(44)
+                    .putShort((short) VERSION_ZIP64).putShort((short) VERSION_ZIP64)
+                    .putInt(0).putInt(0)
+                    .putLong(entries.size()).putLong(entries.size())
+                    .putLong(centralSize).putLong(centralStart);
+                record.putInt(ZIP64_LOCATOR).putInt(0).putLong(zip64End).putInt(1);
+                record.flip();
+                write(record);
+            }
+
+            ByteBuffer end = header(22);
+            end.putInt(END_OF_CENTRAL).putShort((short) 0).putShort((short) 0)
+                .putShort((short) Math.min(entries.size(), MAX_16))
+                .putShort((short) Math.min(entries.size(), MAX_16))
+                .putInt((int) Math.min(centralSize, MAX_32))
+                .putInt((int) Math.min(centralStart, MAX_32))
+                .putShort((short) 0);
+            end.flip();
+            write(end);
+
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+
+        private void writeLocalHeader(Entry entry) throws IOException {
+            ByteBuffer header = header(30 + entry.name.length + (entry.zip64 ? 20 : 0));
+            header.putInt(LOCAL_HEADER)
+                .putShort((short) (entry.zip64 ? VERSION_ZIP64 : VERSION))
+                .putShort((short) UTF8_FLAG)
+                .putShort((short) entry.method)
+                .putInt(entry.dosTime)
+                .putInt(entry.crc);
+            if (entry.zip64) {
+                header.putInt((int) MAX_32).putInt((int) MAX_32);
+            } else {
+                header.putInt((int) entry.compressedSize).putInt((int) entry.size);
+            }
+            header.putShort((short) entry.name.length)
+                .putShort((short) (entry.zip64 ? 20 : 0))
+                .put(entry.name);
+            if (entry.zip64) {
+                header.putShort((short) 1).putShort((short) 16).putLong(entry.size).putLong(entry.compressedSize);
+            }
+            header.flip();
+            write(header);
+        }
+
+        private void patchLocalHeader(Entry entry) throws IOException {
+            ByteBuffer crc = header(4).putInt(entry.crc);
+            writeAt(crc, entry.offset + 14);
+            if (entry.zip64) {
+                writeAt(header(16).putLong(entry.size).putLong(entry.compressedSize),
+                    entry.offset + 30 + entry.name.length + 4);
+            } else {
+                writeAt(header(8).putInt((int) entry.compressedSize).putInt((int) entry.size), entry.offset + 18);
+            }
+        }
+
+        private void writeCentralHeader(Entry entry) throws IOException {
+            boolean sizes64 = entry.size >= MAX_32 || entry.compressedSize >= MAX_32;
+            boolean offset64 = entry.offset >= MAX_32;
+            int extra = (sizes64 || offset64) ? 4 + (sizes64 ? 16 : 0) + (offset64 ? 8 : 0) : 0;
+
+            ByteBuffer header = header(46 + entry.name.length + extra);
+            header.putInt(CENTRAL_HEADER)
+                .putShort((short) (extra > 0 ? VERSION_ZIP64 : VERSION))
+                .putShort((short) (extra > 0 || entry.zip64 ? VERSION_ZIP64 : VERSION))
+                .putShort((short) UTF8_FLAG)
+                .putShort((short) entry.method)
+                .putInt(entry.dosTime)
+                .putInt(entry.crc)
+                .putInt(sizes64 ? (int) MAX_32 : (int) entry.compressedSize)
+                .putInt(sizes64 ? (int) MAX_32 : (int) entry.size)
+                .putShort((short) entry.name.length)
+                .putShort((short) extra)
+                .putShort((short) 0)
+                .putShort((short) 0)
+                .putShort((short) 0)
+                .putInt(entry.directory ? 0x10 : 0)
+                .putInt(offset64 ? (int) MAX_32 : (int) entry.offset)
+                .put(entry.name);
+            if (extra > 0) {
+                header.putShort((short) 1).putShort((short) (extra - 4));
+                if (sizes64) {
+                    header.putLong(entry.size).putLong(entry.compressedSize);
+                }
+                if (offset64) {
+                    header.putLong(entry.offset);
+                }
+            }
+            header.flip();
+            write(header);
+        }
+
+        private ByteBuffer header(int size) {
+            return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        private void write(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                position += out.write(buffer);
+            }
+        }
+
+        private void writeAt(ByteBuffer buffer, long at) throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                at += out.write(buffer, at);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final byte[] name;
+        private final int method;
+        private final long offset;
+        private final boolean zip64;
+        private final boolean directory;
+        private final int dosTime;
+        private int crc;
+        private long size;
+        private long compressedSize;
+
+        private Entry(Item item, int method, long offset, boolean zip64) {
+            this.name = item.name.getBytes(StandardCharsets.UTF_8);
+            this.method = method;
+            this.offset = offset;
+            this.zip64 = zip64;
+            this.directory = item.directory;
+            this.dosTime = dosTime(item.modified);
+        }
+
+        /**
+         * MS-DOS格式的日期时间（低16位为时间，高16位为日期），早于1980年的按1980-01-01
+         * */
+        private static int dosTime(long millis) {
+            LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+            if (time.getYear() < 1980) {
+                return (1 << 21) | (1 << 16);
+            }
+            return (time.getYear() - 1980) << 25 | time.getMonthValue() << 21 | time.getDayOfMonth() << 16
+                | time.getHour() << 11 | time.getMinute() << 5 | time.getSecond() >> 1;
+        }
+    }
+}
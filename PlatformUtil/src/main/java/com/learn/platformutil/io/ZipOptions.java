@@ -0,0 +1,70 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.platformutil.io;
+
+import org.apache.commons.lang3.Validate;
+
+import java.util.zip.Deflater;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/11/05 15:00
+ * FileUtil.zipDir、gzip的选项：
+ *  1. level：压缩级别，0-9，默认Deflater.DEFAULT_COMPRESSION
+ *  2. parallelism：大于1时并行压缩，zip按条目、gzip按块预先压缩到内存后按顺序拼接
+ *  3. bufferSize：读写文件的缓冲大小
+ */
+public class ZipOptions {
+    private int level = Deflater.DEFAULT_COMPRESSION;
+    private int parallelism = 1;
+    private int bufferSize = CopyOptions.DEFAULT_BUFFER_SIZE;
+
+    public int getLevel() {
+        return level;
+    }
+
+    public ZipOptions level(int level) {
+        Validate.isTrue(level == Deflater.DEFAULT_COMPRESSION
+            || (level >= Deflater.NO_COMPRESSION && level <= Deflater.BEST_COMPRESSION), "Illegal level: %d", level);
+        this.level = level;
+        return this;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public ZipOptions parallelism(int parallelism) {
+        Validate.isTrue(parallelism > 0, "parallelism must be positive");
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public ZipOptions bufferSize(int bufferSize) {
+        Validate.isTrue(bufferSize > 0, "bufferSize must be positive");
+        this.bufferSize = bufferSize;
+        return this;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.textvalidator.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/10/30 14:00
+ *
+ * 测试语料：由CorpusGenerator离线生成在resources/corpus下，文件名为“规则名-类别.txt”，每行一个输入
+ *  valid：合法输入
+ *  invalid-early：第1个字符即不合法
+ *  invalid-late：只有最后一个字符不合法
+ */
+public class Corpus {
+    public static final String VALID = "valid";
+    public static final String INVALID_EARLY = "invalid-early";
+    public static final String INVALID_LATE = "invalid-late";
+
+    /**
+     * 每个语料文件的行数
+     * */
+    public static final int SIZE = 1024;
+
+    public static String fileName(String rule, String kind) {
+        return rule.toLowerCase() + "-" + kind + ".txt";
+    }
+
+    public static String[] load(String rule, String kind) {
+        String resource = "/corpus/" + fileName(rule, kind);
+        try (InputStream in = Corpus.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Corpus not found: " + resource + ", run CorpusGenerator first");
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            List<String> lines = new ArrayList<>(SIZE);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+            return lines.toArray(new String[0]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
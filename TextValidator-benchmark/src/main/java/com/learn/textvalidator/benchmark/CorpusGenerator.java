@@ -0,0 +1,218 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.textvalidator.benchmark;
+
+import com.learn.textvalidator.TextRule;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/10/30 14:10
+ *
+ * 离线生成测试语料，固定随机种子，结果可重现；生成的每个输入都经TextRule校验，保证分类正确
+ * 运行：在本目录执行 mvn compile exec:java -Dexec.mainClass=com.learn.textvalidator.benchmark.CorpusGenerator
+ *  或直接运行main方法，参数为输出目录（默认src/main/resources/corpus）
+ */
+public class CorpusGenerator {
+    private static final long SEED = 20191030L;
+
+    private static final String[] MOBILE_PREFIXES = {
+        "130", "131", "132", "133", "134", "135", "136", "137", "138", "139", "145", "147", "150", "151", "152",
+        "153", "155", "156", "157", "158", "159", "170", "173", "175", "176", "177", "178", "180", "181", "182",
+        "183", "184", "185", "186", "187", "188", "189"
+    };
+    private static final String[] AREA_CODES = {"010", "020", "021", "022", "023", "024", "025", "027", "028", "029",
+        "0371", "0431", "0451", "0531", "0571", "0591", "0731", "0755", "0871", "0898"};
+    private static final int[] REGIONS = {110101, 110105, 120101, 310101, 310115, 320102, 330106, 370102, 410105,
+        420106, 440106, 440305, 500103, 510104, 610113};
+    private static final String[] NAMES = {"zhang", "wang", "li", "zhao", "liu", "chen", "yang", "huang", "zhou",
+        "wu", "xu", "sun", "ma", "zhu", "hu", "guo", "he", "lin", "luo", "gao"};
+    private static final String[] DOMAINS = {"qq.com", "163.com", "126.com", "gmail.com", "sina.com.cn",
+        "outlook.com", "mail.example.com", "corp.example-company.cn", "foxmail.com", "sohu.com"};
+    private static final String[] PATHS = {"", "/", "/index.html", "/api/v1/users", "/search?q=java&page=2",
+        "/static/js/app.min.js", "/docs/guide#install", "/a/b/c/d/e/f", "/download?id=123456&token=abcdef"};
+    private static final int[] ID_CARD_WEIGHTS = {7, 9, 10, 5, 8, 4, 2, 1, 6, 3, 7, 9, 10, 5, 8, 4, 2};
+    private static final String ID_CARD_CHECK_CODES = "10X98765432";
+
+    private final Random random = new Random(SEED);
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Paths.get(args.length > 0 ? args[0] : "src/main/resources/corpus");
+        Files.createDirectories(dir);
+        new CorpusGenerator().generate(dir);
+    }
+
+    private void generate(Path dir) throws IOException {
+        write(dir, TextRule.MOBILE_SIMPLE, Corpus.VALID, () -> "1" + digits(10));
+        write(dir, TextRule.MOBILE_SIMPLE, Corpus.INVALID_EARLY, () -> (2 + random.nextInt(8)) + digits(10));
+        write(dir, TextRule.MOBILE_SIMPLE, Corpus.INVALID_LATE, () -> "1" + digits(9) + "x");
+
+        write(dir, TextRule.MOBILE_EXACT, Corpus.VALID, () -> mobile());
+        write(dir, TextRule.MOBILE_EXACT, Corpus.INVALID_EARLY, () -> (2 + random.nextInt(8)) + digits(10));
+        write(dir, TextRule.MOBILE_EXACT, Corpus.INVALID_LATE, () -> mobile().substring(0, 10) + "x");
+
+        write(dir, TextRule.TEL, Corpus.VALID, () -> tel());
+        write(dir, TextRule.TEL, Corpus.INVALID_EARLY, () -> "(" + tel());
+        write(dir, TextRule.TEL, Corpus.INVALID_LATE, () -> tel() + "#");
+
+        write(dir, TextRule.ID_CARD, Corpus.VALID, () -> random.nextInt(10) == 0 ? idCard15() : idCard18());
+        write(dir, TextRule.ID_CARD, Corpus.INVALID_EARLY, () -> "0" + idCard18().substring(1));
+        write(dir, TextRule.ID_CARD, Corpus.INVALID_LATE, () -> idCard18().substring(0, 17) + "Y");
+
+        write(dir, TextRule.ID_CARD_STRICT, Corpus.VALID, () -> idCard18());
+        write(dir, TextRule.ID_CARD_STRICT, Corpus.INVALID_EARLY, () -> "0" + idCard18().substring(1));
+        write(dir, TextRule.ID_CARD_STRICT, Corpus.INVALID_LATE, () -> wrongCheckCode(idCard18()));
+
+        write(dir, TextRule.EMAIL, Corpus.VALID, () -> email());
+        write(dir, TextRule.EMAIL, Corpus.INVALID_EARLY, () -> "." + email());
+        write(dir, TextRule.EMAIL, Corpus.INVALID_LATE, () -> email() + ".");
+
+        write(dir, TextRule.URL, Corpus.VALID, () -> url());
+        write(dir, TextRule.URL, Corpus.INVALID_EARLY, () -> {
+            String url = url();
+            return url.substring(url.indexOf(':'));
+        });
+        write(dir, TextRule.URL, Corpus.INVALID_LATE, () -> url() + " ");
+
+        write(dir, TextRule.IPV4, Corpus.VALID, () -> ipv4());
+        write(dir, TextRule.IPV4, Corpus.INVALID_EARLY, () -> "x" + ipv4());
+        write(dir, TextRule.IPV4, Corpus.INVALID_LATE, () -> ipv4Prefix() + (256 + random.nextInt(700)));
+
+        write(dir, TextRule.IPV6, Corpus.VALID, () -> ipv6());
+        write(dir, TextRule.IPV6, Corpus.INVALID_EARLY, () -> "g" + ipv6());
+        write(dir, TextRule.IPV6, Corpus.INVALID_LATE, () -> ipv6() + ":g");
+
+        write(dir, TextRule.CIDR, Corpus.VALID, () -> random.nextBoolean() ? ipv4() + "/" + random.nextInt(33)
+            : ipv6() + "/" + random.nextInt(129));
+        write(dir, TextRule.CIDR, Corpus.INVALID_EARLY, () -> "/" + ipv4() + "/" + random.nextInt(33));
+        write(dir, TextRule.CIDR, Corpus.INVALID_LATE, () -> ipv4() + "/" + (33 + random.nextInt(60)));
+    }
+
+    private void write(Path dir, TextRule rule, String kind, Supplier<String> generator) throws IOException {
+        boolean valid = Corpus.VALID.equals(kind);
+        try (Writer writer = Files.newBufferedWriter(dir.resolve(Corpus.fileName(rule.name(), kind)),
+            StandardCharsets.UTF_8)) {
+            for (int count = 0; count < Corpus.SIZE; ) {
+                String input = generator.get();
+                if (rule.test(input) == valid) {
+                    writer.write(input);
+                    writer.write('\n');
+                    count++;
+                }
+            }
+        }
+    }
+
+    private String digits(int count) {
+        StringBuilder digits = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            digits.append((char) ('0' + random.nextInt(10)));
+        }
+        return digits.toString();
+    }
+
+    private String mobile() {
+        return pick(MOBILE_PREFIXES) + digits(8);
+    }
+
+    private String tel() {
+        String area = pick(AREA_CODES);
+        String number = (2 + random.nextInt(8)) + digits(area.length() == 3 ? 7 : 6);
+        return random.nextInt(4) == 0 ? area + number : area + "-" + number;
+    }
+
+    private String idCard18() {
+        LocalDate birthday = LocalDate.ofEpochDay(random.nextInt(365 * 69) - 365 * 20);
+        String body = REGIONS[random.nextInt(REGIONS.length)]
+            + String.format("%04d%02d%02d", birthday.getYear(), birthday.getMonthValue(), birthday.getDayOfMonth())
+            + digits(3);
+        int sum = 0;
+        for (int i = 0; i < 17; i++) {
+            sum += (body.charAt(i) - '0') * ID_CARD_WEIGHTS[i];
+        }
+        return body + ID_CARD_CHECK_CODES.charAt(sum % 11);
+    }
+
+    private String idCard15() {
+        String id = idCard18();
+        return id.substring(0, 6) + id.substring(8, 17);
+    }
+
+    private String wrongCheckCode(String id) {
+        char check = id.charAt(17);
+        char wrong = ID_CARD_CHECK_CODES.charAt(random.nextInt(ID_CARD_CHECK_CODES.length()));
+        return wrong == check ? wrongCheckCode(id) : id.substring(0, 17) + wrong;
+    }
+
+    private String email() {
+        String local = pick(NAMES);
+        switch (random.nextInt(4)) {
+            case 0: local += "." + pick(NAMES); break;
+            case 1: local += random.nextInt(10000); break;
+            case 2: local += "_" + pick(NAMES) + "+" + "tag"; break;
+            default: break;
+        }
+        return local + "@" + pick(DOMAINS);
+    }
+
+    private String url() {
+        String scheme = random.nextInt(4) == 0 ? "http" : "https";
+        String host = random.nextBoolean() ? "www." + pick(DOMAINS) : pick(NAMES) + "." + pick(DOMAINS);
+        return scheme + "://" + host + pick(PATHS);
+    }
+
+    private String ipv4Prefix() {
+        return random.nextInt(224) + "." + random.nextInt(256) + "." + random.nextInt(256) + ".";
+    }
+
+    private String ipv4() {
+        return ipv4Prefix() + random.nextInt(256);
+    }
+
+    private String ipv6() {
+        switch (random.nextInt(4)) {
+            case 0:
+                return "::ffff:" + ipv4();
+            case 1:
+                return "fe80::" + Integer.toHexString(random.nextInt(0x10000)) + ":"
+                    + Integer.toHexString(random.nextInt(0x10000));
+            default:
+                StringBuilder address = new StringBuilder("2001:db8");
+                for (int i = 0; i < 6; i++) {
+                    address.append(':').append(Integer.toHexString(random.nextInt(0x10000)));
+                }
+                return address.toString();
+        }
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
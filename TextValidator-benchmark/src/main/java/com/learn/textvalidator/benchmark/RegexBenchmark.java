@@ -0,0 +1,133 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.textvalidator.benchmark;
+
+import com.learn.textvalidator.TextRule;
+import com.learn.textvalidator.TextValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/10/30 14:50
+ *
+ * 预编译正则（TextValidator.PATTERN_XXX）与手写扫描（TextScanner）的对比，只包含保留了正则版本的规则：
+ *  1. regex：TextValidator.isMatch(PATTERN_XXX, input)，身份证为15位或18位正则之一
+ *  2. scanner：TextRule.test，即TextScanner的单次扫描
+ *
+ * 运行：java -jar target/benchmarks.jar RegexBenchmark -prof gc
+ *  或直接运行本类的main方法（已开启GC分配统计）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@OperationsPerInvocation(Corpus.SIZE)
+public class RegexBenchmark {
+
+    @Param({"MOBILE_SIMPLE", "MOBILE_EXACT", "TEL", "ID_CARD", "EMAIL", "URL", "IPV4"})
+    public String rule;
+
+    @Param({Corpus.VALID, Corpus.INVALID_EARLY, Corpus.INVALID_LATE})
+    public String kind;
+
+    private String[] inputs;
+    private Predicate<CharSequence> regex;
+    private Predicate<CharSequence> scanner;
+
+    @Setup
+    public void setup() {
+        inputs = Corpus.load(rule, kind);
+        scanner = TextRule.valueOf(rule);
+        regex = regexOf(TextRule.valueOf(rule));
+
+        for (String input : inputs) {
+            if (regex.test(input) != scanner.test(input)) {
+                throw new IllegalStateException("regex and scanner disagree on: " + input);
+            }
+        }
+    }
+
+    @Benchmark
+    public void regex(Blackhole blackhole) {
+        for (String input : inputs) {
+            blackhole.consume(regex.test(input));
+        }
+    }
+
+    @Benchmark
+    public void scanner(Blackhole blackhole) {
+        for (String input : inputs) {
+            blackhole.consume(scanner.test(input));
+        }
+    }
+
+    private static Predicate<CharSequence> regexOf(TextRule rule) {
+        switch (rule) {
+            case MOBILE_SIMPLE:
+                return input -> TextValidator.isMatch(TextValidator.PATTERN_REGEX_MOBILE_SIMPLE, input);
+            case MOBILE_EXACT:
+                return input -> TextValidator.isMatch(TextValidator.PATTERN_REGEX_MOBILE_EXACT, input);
+            case TEL:
+                return input -> TextValidator.isMatch(TextValidator.PATTERN_REGEX_TEL, input);
+            case ID_CARD:
+                return input -> TextValidator.isMatch(TextValidator.PATTERN_REGEX_ID_CARD15, input)
+                    || TextValidator.isMatch(TextValidator.PATTERN_REGEX_ID_CARD18, input);
+            case EMAIL:
+                return input -> TextValidator.isMatch(TextValidator.PATTERN_REGEX_EMAIL, input);
+            case URL:
+                return input -> TextValidator.isMatch(TextValidator.PATTERN_REGEX_URL, input);
+            case IPV4:
+                return input -> TextValidator.isMatch(TextValidator.PATTERN_REGEX_IPV4, input);
+            default:
+                throw new IllegalArgumentException("No regex for rule: " + rule);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(RegexBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.textvalidator.benchmark;
+
+import com.learn.textvalidator.TextRule;
+import com.learn.textvalidator.TextValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/10/30 14:40
+ *
+ * TextValidator各isXxx方法的性能，按规则与语料类别（合法、开头不合法、结尾不合法）分组
+ * 每次调用遍历一个语料文件，结果为单个输入的平均耗时
+ *
+ * 运行：在PlatformUtil、TextValidator目录依次执行 mvn install，然后在本目录执行 mvn package，
+ *  java -jar target/benchmarks.jar TextValidatorBenchmark
+ *  或直接运行本类的main方法
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@OperationsPerInvocation(Corpus.SIZE)
+public class TextValidatorBenchmark {
+
+    @Param({"MOBILE_SIMPLE", "MOBILE_EXACT", "TEL", "ID_CARD", "ID_CARD_STRICT", "EMAIL", "URL", "IPV4", "IPV6",
+        "CIDR"})
+    public String rule;
+
+    @Param({Corpus.VALID, Corpus.INVALID_EARLY, Corpus.INVALID_LATE})
+    public String kind;
+
+    private String[] inputs;
+    private Predicate<CharSequence> validator;
+
+    @Setup
+    public void setup() {
+        inputs = Corpus.load(rule, kind);
+        validator = validatorOf(TextRule.valueOf(rule));
+    }
+
+    @Benchmark
+    public void validator(Blackhole blackhole) {
+        for (String input : inputs) {
+            blackhole.consume(validator.test(input));
+        }
+    }
+
+    private static Predicate<CharSequence> validatorOf(TextRule rule) {
+        switch (rule) {
+            case MOBILE_SIMPLE: return TextValidator::isMobileSimple;
+            case MOBILE_EXACT: return TextValidator::isMobileExact;
+            case TEL: return TextValidator::isTel;
+            case ID_CARD: return TextValidator::isIdCard;
+            case ID_CARD_STRICT: return TextValidator::isIdCardStrict;
+            case EMAIL: return TextValidator::isEmail;
+            case URL: return TextValidator::isUrl;
+            case IPV4: return TextValidator::isIpv4;
+            case IPV6: return TextValidator::isIpv6;
+            case CIDR: return TextValidator::isCidr;
+            default: throw new IllegalArgumentException("Unknown rule: " + rule);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(TextValidatorBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
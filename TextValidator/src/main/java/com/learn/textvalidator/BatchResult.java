@@ -0,0 +1,83 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.textvalidator;
+
+import java.util.BitSet;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/10/29 10:05
+ *
+ * 批量校验结果：以BitSet记录未通过校验的下标，另记录总数与失败数
+ */
+public class BatchResult {
+    private final int total;
+    private final int failureCount;
+    private final BitSet failures;
+
+    BatchResult(int total, int failureCount, BitSet failures) {
+        this.total = total;
+        this.failureCount = failureCount;
+        this.failures = failures;
+    }
+
+    /**
+     * 校验的数据总数
+     * */
+    public int getTotal() {
+        return total;
+    }
+
+    public int getFailureCount() {
+        return failureCount;
+    }
+
+    public int getPassCount() {
+        return total - failureCount;
+    }
+
+    /**
+     * 是否全部通过
+     * */
+    public boolean isAllPassed() {
+        return failureCount == 0;
+    }
+
+    /**
+     * 第index个数据是否未通过
+     * */
+    public boolean isFailed(int index) {
+        return failures.get(index);
+    }
+
+    /**
+     * 未通过校验的下标，遍历方式：for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1))
+     * 返回的是内部对象，请勿修改
+     * */
+    public BitSet getFailures() {
+        return failures;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{total=" + total + ", failureCount=" + failureCount + "}";
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.textvalidator;
+
+import org.apache.commons.lang3.Validate;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/10/29 10:20
+ *
+ * 批量（按列）校验：
+ *  1. 规则集合中满足任一规则即视为通过，null视为不通过
+ *  2. 结果以BitSet记录失败下标，见BatchResult
+ *  3. 并行版本按64的整数倍切分下标区间提交到ForkJoinPool，各任务写入互不重叠的long字，无需加锁与合并
+ */
+public class BatchValidator {
+    /**
+     * 并行时单个任务处理的最少数据量，须为64的整数倍
+     * */
+    private static final int PARALLEL_THRESHOLD = 64 * 128;
+
+    /**
+     * 校验List，非RandomAccess的List会先转为数组
+     * */
+    public static BatchResult validate(List<? extends CharSequence> values, Set<TextRule> rules) {
+        return validate(values, toPredicate(rules));
+    }
+
+    public static BatchResult validate(List<? extends CharSequence> values, Predicate<? super CharSequence> rule) {
+        Validate.notNull(values, "values can't be null");
+        return run(asRandomAccess(values), rule, null);
+    }
+
+    public static BatchResult validate(CharSequence[] values, Set<TextRule> rules) {
+        return validate(values, toPredicate(rules));
+    }
+
+    public static BatchResult validate(CharSequence[] values, Predicate<? super CharSequence> rule) {
+        Validate.notNull(values, "values can't be null");
+        return run(new ArraySource(values), rule, null);
+    }
+
+    /**
+     * 校验Stream，下标为元素在Stream中的顺序
+     * */
+    public static BatchResult validate(Stream<? extends CharSequence> values, Set<TextRule> rules) {
+        return validate(values.toArray(CharSequence[]::new), toPredicate(rules));
+    }
+
+    /**
+     * 使用ForkJoinPool.commonPool()并行校验
+     * */
+    public static BatchResult validateParallel(List<? extends CharSequence> values, Set<TextRule> rules) {
+        return validateParallel(values, toPredicate(rules), ForkJoinPool.commonPool());
+    }
+
+    public static BatchResult validateParallel(List<? extends CharSequence> values,
+                                               Predicate<? super CharSequence> rule, ForkJoinPool pool) {
+        Validate.notNull(values, "values can't be null");
+        Validate.notNull(pool, "pool can't be null");
+        return run(asRandomAccess(values), rule, pool);
+    }
+
+    public static BatchResult validateParallel(CharSequence[] values, Set<TextRule> rules) {
+        return validateParallel(values, toPredicate(rules), ForkJoinPool.commonPool());
+    }
+
+    public static BatchResult validateParallel(CharSequence[] values,
+                                               Predicate<? super CharSequence> rule, ForkJoinPool pool) {
+        Validate.notNull(values, "values can't be null");
+        Validate.notNull(pool, "pool can't be null");
+        return run(new ArraySource(values), rule, pool);
+    }
+
+    public static BatchResult validateParallel(Stream<? extends CharSequence> values, Set<TextRule> rules) {
+        return validateParallel(values.toArray(CharSequence[]::new), rules);
+    }
+
+    /**
+     * 将规则集合编译为一个Predicate：单条规则直接返回，多条规则满足任一即通过
+     * */
+    public static Predicate<CharSequence> toPredicate(Set<TextRule> rules) {
+        Validate.notEmpty(rules, "rules can't be empty");
+
+        final TextRule[] array = rules.toArray(new TextRule[0]);
+        if (array.length == 1) {
+            return array[0];
+        }
+        return new Predicate<CharSequence>() {
+            @Override
+            public boolean test(CharSequence input) {
+                for (TextRule rule : array) {
+                    if (rule.test(input)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        };
+    }
+
+    private static BatchResult run(Source source, Predicate<? super CharSequence> rule, ForkJoinPool pool) {
+        Validate.notNull(rule, "rule can't be null");
+
+        int size = source.size();
+        long[] words = new long[(size + 63) >>> 6];
+        int failureCount;
+        if (pool == null || size <= PARALLEL_THRESHOLD) {
+            failureCount = validateRange(source, rule, 0, size, words);
+        } else {
+            failureCount = pool.invoke(new ValidateTask(source, rule, 0, size, words));
+        }
+        return new BatchResult(size, failureCount, BitSet.valueOf(words));
+    }
+
+    private static int validateRange(Source source, Predicate<? super CharSequence> rule, int from, int to,
+                                     long[] words) {
+        int failures = 0;
+        for (int i = from; i < to; i++) {
+            CharSequence value = source.get(i);
+            if (value == null || !rule.test(value)) {
+                words[i >>> 6] |= 1L << i;
+                failures++;
+            }
+        }
+        return failures;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Source asRandomAccess(List<? extends CharSequence> values) {
+        if (values instanceof RandomAccess) {
+            return new ListSource((List<CharSequence>) values);
+        }
+        return new ArraySource(values.toArray(new CharSequence[0]));
+    }
+
+    /**
+     * 按下标访问的数据源
+     * */
+    private interface Source {
+        int size();
+
+        CharSequence get(int index);
+    }
+
+    private static class ArraySource implements Source {
+        private final CharSequence[] values;
+
+        ArraySource(CharSequence[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        @Override
+        public CharSequence get(int index) {
+            return values[index];
+        }
+    }
+
+    private static class ListSource implements Source {
+        private final List<CharSequence> values;
+
+        ListSource(List<CharSequence> values) {
+            this.values = values;
+        }
+
+        @Override
+        public int size() {
+            return values.size();
+        }
+
+        @Override
+        public CharSequence get(int index) {
+            return values.get(index);
+        }
+    }
+
+    /**
+     * 二分切分下标区间，切分点对齐到64，保证不同任务不会写入同一个long
+     * */
+    private static class ValidateTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final Source source;
+        private final Predicate<? super CharSequence> rule;
+        private final int from;
+        private final int to;
+        private final long[] words;
+
+        ValidateTask(Source source, Predicate<? super CharSequence> rule, int from, int to, long[] words) {
+            this.source = source;
+            this.rule = rule;
+            this.from = from;
+            this.to = to;
+            this.words = words;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                return validateRange(source, rule, from, to, words);
+            }
+
+            int middle = (from + (to - from) / 2) & ~63;
+            ValidateTask left = new ValidateTask(source, rule, from, middle, words);
+            ValidateTask right = new ValidateTask(source, rule, middle, to, words);
+            left.fork();
+            int rightFailures = right.compute();
+            return left.join() + rightFailures;
+        }
+    }
+}
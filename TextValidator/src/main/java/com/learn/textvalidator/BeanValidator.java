@@ -0,0 +1,282 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.textvalidator;
+
+import com.learn.textvalidator.annotation.Email;
+import com.learn.textvalidator.annotation.IdCard;
+import com.learn.textvalidator.annotation.Ipv4;
+import com.learn.textvalidator.annotation.Mobile;
+import com.sun.istack.internal.NotNull;
+import org.apache.commons.lang3.Validate;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/10/29 10:40
+ *
+ * 基于注解（@Mobile、@IdCard、@Email、@Ipv4）的对象校验：
+ *  1. 每个类首次校验时解析自身及父类的字段与无参方法，编译为校验计划（MethodHandle访问器 + TextRule）并以ClassValue缓存
+ *  2. 之后的校验只执行访问器与规则，不再有反射查找；通过时不分配对象
+ *  3. 违例收集到可复用的ValidationResult中
+ *  4. 子类重写并重新标注的方法只按最下层的声明校验一次
+ */
+public class BeanValidator {
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<Constraint[]> PLANS = new ClassValue<Constraint[]>() {
+        @Override
+        protected Constraint[] computeValue(Class<?> type) {
+            return compile(type);
+        }
+    };
+
+    /**
+     * 校验单个对象
+     * */
+    public static ValidationResult validate(@NotNull Object bean) {
+        ValidationResult result = new ValidationResult();
+        validate(bean, result);
+        return result;
+    }
+
+    /**
+     * 校验单个对象，违例追加到result中，返回本次是否全部通过
+     * */
+    public static boolean validate(@NotNull Object bean, @NotNull ValidationResult result) {
+        Validate.notNull(bean, "bean can't be null");
+        Validate.notNull(result, "result can't be null");
+        return check(PLANS.get(bean.getClass()), bean, -1, result);
+    }
+
+    /**
+     * 校验List中的每个对象，null元素跳过
+     * */
+    public static ValidationResult validateAll(@NotNull List<?> beans) {
+        ValidationResult result = new ValidationResult();
+        validateAll(beans, result);
+        return result;
+    }
+
+    /**
+     * 校验List中的每个对象，违例追加到result中并记录下标，返回本次是否全部通过
+     * */
+    public static boolean validateAll(@NotNull List<?> beans, @NotNull ValidationResult result) {
+        Validate.notNull(beans, "beans can't be null");
+        Validate.notNull(result, "result can't be null");
+
+        boolean valid = true;
+        Class<?> lastType = null;
+        Constraint[] plan = null;
+        int index = 0;
+        for (Object bean : beans) {
+            if (bean != null) {
+                if (bean.getClass() != lastType) {
+                    lastType = bean.getClass();
+                    plan = PLANS.get(lastType);
+                }
+                valid &= check(plan, bean, index, result);
+            }
+            index++;
+        }
+        return valid;
+    }
+
+    /**
+     * 只判断是否通过，遇到第一个违例即返回
+     * */
+    public static boolean isValid(@NotNull Object bean) {
+        Validate.notNull(bean, "bean can't be null");
+        for (Constraint constraint : PLANS.get(bean.getClass())) {
+            if (constraint.violated(constraint.get(bean))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean check(Constraint[] plan, Object bean, int index, ValidationResult result) {
+        boolean valid = true;
+        for (Constraint constraint : plan) {
+            CharSequence value = constraint.get(bean);
+            if (constraint.violated(value)) {
+                result.add(index, constraint.property, value == null || value.length() == 0 ? null : constraint.rule,
+                    constraint.message, value);
+                valid = false;
+            }
+        }
+        return valid;
+    }
+
+    private static Constraint[] compile(Class<?> type) {
+        List<Constraint> constraints = new ArrayList<>();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            hierarchy.add(0, c);
+        }
+        Set<Method> overridden = overriddenMethods(hierarchy);
+
+        for (Class<?> c : hierarchy) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || !hasConstraint(field)) {
+                    continue;
+                }
+                checkType(field.getType(), field);
+                makeAccessible(field);
+                try {
+                    addConstraints(constraints, field, field.getName(), lookup.unreflectGetter(field));
+                } catch (IllegalAccessException e) {
+                    throw new IllegalArgumentException("Can't access field: " + field, e);
+                }
+            }
+            for (Method method : c.getDeclaredMethods()) {
+                if (!isConstrainedMethod(method) || overridden.contains(method)) {
+                    continue;
+                }
+                Validate.isTrue(method.getParameterCount() == 0, "Constrained method must have no parameter: %s", method);
+                checkType(method.getReturnType(), method);
+                makeAccessible(method);
+                try {
+                    addConstraints(constraints, method, method.getName(), lookup.unreflect(method));
+                } catch (IllegalAccessException e) {
+                    throw new IllegalArgumentException("Can't access method: " + method, e);
+                }
+            }
+        }
+        return constraints.toArray(new Constraint[0]);
+    }
+
+    /**
+     * 从子类向父类遍历，按签名找出被下层类重写且重新标注的方法；私有方法不会被重写，不参与去重
+     * */
+    private static Set<Method> overriddenMethods(List<Class<?>> hierarchy) {
+        Set<String> signatures = new HashSet<>();
+        Set<Method> overridden = new HashSet<>();
+        for (int i = hierarchy.size() - 1; i >= 0; i--) {
+            for (Method method : hierarchy.get(i).getDeclaredMethods()) {
+                if (!isConstrainedMethod(method) || Modifier.isPrivate(method.getModifiers())) {
+                    continue;
+                }
+                if (!signatures.add(method.getName() + Arrays.toString(method.getParameterTypes()))) {
+                    overridden.add(method);
+                }
+            }
+        }
+        return overridden;
+    }
+
+    private static boolean isConstrainedMethod(Method method) {
+        return !Modifier.isStatic(method.getModifiers()) && !method.isBridge() && hasConstraint(method);
+    }
+
+    private static void addConstraints(List<Constraint> constraints, AccessibleObject member, String property,
+        MethodHandle accessor) {
+        accessor = accessor.asType(ACCESSOR_TYPE);
+
+        Mobile mobile = member.getAnnotation(Mobile.class);
+        if (mobile != null) {
+            constraints.add(new Constraint(property, accessor,
+                mobile.exact() ? TextRule.MOBILE_EXACT : TextRule.MOBILE_SIMPLE, mobile.message(), mobile.required()));
+        }
+        IdCard idCard = member.getAnnotation(IdCard.class);
+        if (idCard != null) {
+            constraints.add(new Constraint(property, accessor,
+                idCard.strict() ? TextRule.ID_CARD_STRICT : TextRule.ID_CARD, idCard.message(), idCard.required()));
+        }
+        Email email = member.getAnnotation(Email.class);
+        if (email != null) {
+            constraints.add(new Constraint(property, accessor, TextRule.EMAIL, email.message(), email.required()));
+        }
+        Ipv4 ipv4 = member.getAnnotation(Ipv4.class);
+        if (ipv4 != null) {
+            constraints.add(new Constraint(property, accessor, TextRule.IPV4, ipv4.message(), ipv4.required()));
+        }
+    }
+
+    private static boolean hasConstraint(AccessibleObject member) {
+        for (Annotation annotation : member.getDeclaredAnnotations()) {
+            Class<? extends Annotation> type = annotation.annotationType();
+            if (type == Mobile.class || type == IdCard.class || type == Email.class || type == Ipv4.class) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void checkType(Class<?> type, Object member) {
+        Validate.isTrue(CharSequence.class.isAssignableFrom(type), "Constrained member must be a CharSequence: %s",
+            member);
+    }
+
+    private static void makeAccessible(AccessibleObject member) {
+        member.setAccessible(true);
+    }
+
+    /**
+     * 校验计划中的一项：访问器 + 规则
+     * */
+    private static final class Constraint {
+        private final String property;
+        private final MethodHandle accessor;
+        private final TextRule rule;
+        private final String message;
+        private final boolean required;
+
+        private Constraint(String property, MethodHandle accessor, TextRule rule, String message, boolean required) {
+            this.property = property;
+            this.accessor = accessor;
+            this.rule = rule;
+            this.message = message;
+            this.required = required;
+        }
+
+        private CharSequence get(Object bean) {
+            try {
+                return (CharSequence) (Object) accessor.invokeExact(bean);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Can't read property: " + property, e);
+            }
+        }
+
+        private boolean violated(CharSequence value) {
+            if (value == null || value.length() == 0) {
+                return required;
+            }
+            return !rule.test(value);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.textvalidator;
+
+import com.sun.istack.internal.Nullable;
+
+import java.net.IDN;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/10/31 9:20
+ *
+ * 支持国际化地址的邮箱校验，单次扫描，耗时与输入长度成线性：
+ *  1. 总长度不超过254，超过即直接返回，本地部分不超过64字节（UTF-8），域名不超过253，每段不超过63
+ *  2. 本地部分：字母、数字（含非ASCII）、下划线，以“-”“+”“.”分隔，不能以分隔符开头、结尾或连续出现
+ *  3. 域名：ASCII域名直接按LDH规则（字母、数字、中间的“-”）扫描，至少两段，末段须含字母
+ *     含非ASCII字符的域名经IDN.toASCII转为punycode后再校验，转换结果缓存在有界LRU中（非ASCII域名集中在少数几个）
+ *  与TextValidator.isEmail不同，域名中不允许下划线
+ */
+public class EmailValidator {
+    public static final int MAX_LENGTH = 254;
+    public static final int MAX_LOCAL_LENGTH = 64;
+    public static final int MAX_DOMAIN_LENGTH = 253;
+    public static final int MAX_LABEL_LENGTH = 63;
+
+    /**
+     * 域名缓存的最大条目数
+     * */
+    public static final int CACHE_SIZE = 1024;
+
+    /**
+     * 缓存中表示域名不合法的值
+     * */
+    private static final String INVALID_DOMAIN = "";
+
+    private static final Map<String, String> DOMAIN_CACHE = Collections.synchronizedMap(
+        new LinkedHashMap<String, String>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        });
+
+    public static boolean isValid(@Nullable CharSequence input) {
+        if (input == null || input.length() > MAX_LENGTH) {
+            return false;
+        }
+
+        int len = input.length();
+        int at = scanLocalPart(input, len);
+        if (at < 0) {
+            return false;
+        }
+        int localLength = utf8Length(input, 0, at);
+        if (isAscii(input, at + 1, len)) {
+            return isAsciiDomain(input, at + 1, len) && localLength + len - at <= MAX_LENGTH;
+        }
+
+        String domain = toAsciiDomain(input.subSequence(at + 1, len).toString());
+        return !domain.isEmpty() && localLength + 1 + domain.length() <= MAX_LENGTH;
+    }
+
+    /**
+     * 校验并将域名转为punycode形式（本地部分保持不变），不合法时返回null
+     * */
+    @Nullable
+    public static String toAscii(@Nullable CharSequence input) {
+        if (!isValid(input)) {
+            return null;
+        }
+
+        String address = input.toString();
+        int at = address.lastIndexOf('@');
+        String domain = address.substring(at + 1);
+        if (isAscii(domain, 0, domain.length())) {
+            return address;
+        }
+        return address.substring(0, at + 1) + toAsciiDomain(domain);
+    }
+
+    /**
+     * 当前缓存的域名数
+     * */
+    public static int cachedDomains() {
+        return DOMAIN_CACHE.size();
+    }
+
+    public static void clearCache() {
+        DOMAIN_CACHE.clear();
+    }
+
+    /**
+     * 校验本地部分，返回'@'的下标，不合法时返回-1
+     * */
+    private static int scanLocalPart(CharSequence input, int len) {
+        boolean afterWord = false;
+        int i = 0;
+        while (i < len) {
+            int c = Character.codePointAt(input, i);
+            if (c == '@') {
+                break;
+            }
+            if (isLocalChar(c)) {
+                afterWord = true;
+            } else if (c == '-' || c == '+' || c == '.') {
+                if (!afterWord) {
+                    return -1;
+                }
+                afterWord = false;
+            } else {
+                return -1;
+            }
+            i += Character.charCount(c);
+        }
+        if (!afterWord || i == len || utf8Length(input, 0, i) > MAX_LOCAL_LENGTH) {
+            return -1;
+        }
+        return i;
+    }
+
+    private static boolean isLocalChar(int c) {
+        if (c < 128) {
+            return TextScanner.isWordChar((char) c);
+        }
+        if (Character.isLetterOrDigit(c)) {
+            return true;
+        }
+        int type = Character.getType(c);
+        return type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK;
+    }
+
+    /**
+     * [start, end)为LDH域名：至少两段，每段1-63个字母、数字或中间的'-'，末段须含字母
+     * */
+    static boolean isAsciiDomain(CharSequence input, int start, int end) {
+        if (end - start > MAX_DOMAIN_LENGTH) {
+            return false;
+        }
+
+        int labels = 0;
+        int labelStart = start;
+        boolean hasLetter = false;
+        for (int i = start; i <= end; i++) {
+            char c = i == end ? '.' : input.charAt(i);
+            if (c == '.') {
+                int labelLength = i - labelStart;
+                if (labelLength == 0 || labelLength > MAX_LABEL_LENGTH || input.charAt(i - 1) == '-') {
+                    return false;
+                }
+                labels++;
+                labelStart = i + 1;
+                if (i != end) {
+                    hasLetter = false;
+                }
+            } else if (TextScanner.isAsciiLetter(c)) {
+                hasLetter = true;
+            } else if (c == '-') {
+                if (i == labelStart) {
+                    return false;
+                }
+            } else if (!TextScanner.isDigit(c)) {
+                return false;
+            }
+        }
+        return labels >= 2 && hasLetter;
+    }
+
+    /**
+     * 非ASCII域名转为punycode并校验，结果（含不合法）缓存，不合法时返回INVALID_DOMAIN
+     * */
+    private static String toAsciiDomain(String domain) {
+        String ascii = DOMAIN_CACHE.get(domain);
+        if (ascii == null) {
+            try {
+                ascii = IDN.toASCII(domain);
+                if (!isAsciiDomain(ascii, 0, ascii.length())) {
+                    ascii = INVALID_DOMAIN;
+                }
+            } catch (IllegalArgumentException e) {
+                ascii = INVALID_DOMAIN;
+            }
+            DOMAIN_CACHE.put(domain, ascii);
+        }
+        return ascii;
+    }
+
+    private static boolean isAscii(CharSequence input, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (input.charAt(i) >= 128) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int utf8Length(CharSequence input, int start, int end) {
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                // 代理对共4字节，低代理计0
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
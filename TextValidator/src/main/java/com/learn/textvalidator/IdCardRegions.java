@@ -0,0 +1,129 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.textvalidator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/10/28 15:20
+ *
+ * 身份证前6位行政区划代码表，以位图覆盖整个000000-999999的代码空间（约122KB）：
+ *  1. 默认只校验2位省级代码（含81香港、82澳门、83台湾居民居住证），其下全部代码视为有效
+ *  2. 可通过load加载完整的6位代码表（如GB/T 2260，每行以6位代码开头，其余内容忽略），替换后对读线程立即可见
+ */
+public class IdCardRegions {
+    private static final int CODE_SPACE = 1000000;
+
+    private static final int[] PROVINCE_CODES = {
+        11, 12, 13, 14, 15,
+        21, 22, 23,
+        31, 32, 33, 34, 35, 36, 37,
+        41, 42, 43, 44, 45, 46,
+        50, 51, 52, 53, 54,
+        61, 62, 63, 64, 65,
+        71, 81, 82, 83
+    };
+
+    private static volatile long[] regions = provinceRegions();
+
+    /**
+     * 判断6位行政区划代码是否有效
+     * */
+    public static boolean contains(int code) {
+        if (code < 0 || code >= CODE_SPACE) {
+            return false;
+        }
+        return (regions[code >>> 6] & (1L << code)) != 0;
+    }
+
+    /**
+     * 加载完整的6位代码表，每行以6位数字开头，不以数字开头的行（标题、空行等）忽略
+     * */
+    public static void load(InputStream in) throws IOException {
+        long[] bits = new long[(CODE_SPACE + 63) >>> 6];
+        int count = 0;
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            int code = parseCode(line);
+            if (code >= 0) {
+                bits[code >>> 6] |= 1L << code;
+                count++;
+            }
+        }
+
+        if (count == 0) {
+            throw new IOException("No region code found");
+        }
+        regions = bits;
+    }
+
+    public static void load(int[] codes) {
+        long[] bits = new long[(CODE_SPACE + 63) >>> 6];
+        for (int code : codes) {
+            if (code < 0 || code >= CODE_SPACE) {
+                throw new IllegalArgumentException("Illegal region code: " + code);
+            }
+            bits[code >>> 6] |= 1L << code;
+        }
+        regions = bits;
+    }
+
+    /**
+     * 恢复为默认的省级校验
+     * */
+    public static void reset() {
+        regions = provinceRegions();
+    }
+
+    private static int parseCode(String line) {
+        int start = 0;
+        while (start < line.length() && Character.isWhitespace(line.charAt(start))) {
+            start++;
+        }
+        if (line.length() - start < 6 || !TextScanner.isDigits(line, start, start + 6)
+            || (line.length() > start + 6 && TextScanner.isDigit(line.charAt(start + 6)))) {
+            return -1;
+        }
+
+        int code = 0;
+        for (int i = start; i < start + 6; i++) {
+            code = code * 10 + (line.charAt(i) - '0');
+        }
+        return code;
+    }
+
+    private static long[] provinceRegions() {
+        long[] bits = new long[(CODE_SPACE + 63) >>> 6];
+        for (int province : PROVINCE_CODES) {
+            for (int code = province * 10000, end = code + 10000; code < end; code++) {
+                bits[code >>> 6] |= 1L << code;
+            }
+        }
+        return bits;
+    }
+}
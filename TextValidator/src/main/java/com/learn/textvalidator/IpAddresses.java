@@ -0,0 +1,285 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.textvalidator;
+
+import com.sun.istack.internal.Nullable;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/10/29 16:00
+ *
+ * IP地址的校验与解析，单次扫描，不创建InetAddress、不做DNS解析：
+ *  1. IPv4解析为int（无符号语义），IPv6解析为高、低两个long
+ *  2. IPv4每段允许前导0（与REGEX_IPV4一致），IPv6支持“::”缩写与末尾内嵌IPv4，不支持“%”区域标识
+ *  3. CIDR为“地址/前缀长度”，IPv4前缀0-32，IPv6前缀0-128，不要求主机位为0
+ */
+public class IpAddresses {
+    /**
+     * parseIpv4失败时的返回值
+     * */
+    public static final long INVALID_IPV4 = -1L;
+
+    /**
+     * parseCidrPrefix失败时的返回值
+     * */
+    public static final int INVALID_PREFIX = -1;
+
+    private static final int IPV6_GROUPS = 8;
+    private static final int MAX_HEX_DIGITS = 4;
+
+    private static final byte[] HEX_VALUES = new byte[128];
+
+    static {
+        for (int i = 0; i < HEX_VALUES.length; i++) {
+            HEX_VALUES[i] = -1;
+        }
+        for (int i = 0; i < 10; i++) {
+            HEX_VALUES['0' + i] = (byte) i;
+        }
+        for (int i = 0; i < 6; i++) {
+            HEX_VALUES['a' + i] = (byte) (10 + i);
+            HEX_VALUES['A' + i] = (byte) (10 + i);
+        }
+    }
+
+    public static boolean isIpv4(@Nullable CharSequence input) {
+        return input != null && parseIpv4(input, 0, input.length()) != INVALID_IPV4;
+    }
+
+    public static boolean isIpv6(@Nullable CharSequence input) {
+        return input != null && parseIpv6(input, 0, input.length(), null, 0);
+    }
+
+    /**
+     * IPv4或IPv6的CIDR，如192.168.0.0/16、2001:db8::/32
+     * */
+    public static boolean isCidr(@Nullable CharSequence input) {
+        if (input == null) {
+            return false;
+        }
+        int slash = lastIndexOf(input, '/');
+        if (slash < 0) {
+            return false;
+        }
+
+        int prefix = parseCidrPrefix(input, slash + 1, input.length());
+        if (prefix == INVALID_PREFIX) {
+            return false;
+        }
+        if (parseIpv4(input, 0, slash) != INVALID_IPV4) {
+            return prefix <= 32;
+        }
+        return parseIpv6(input, 0, slash, null, 0);
+    }
+
+    /**
+     * 解析IPv4，非法时抛出IllegalArgumentException，返回值按无符号int理解（Integer.toUnsignedLong）
+     * */
+    public static int toIpv4(CharSequence input) {
+        Validate.notNull(input, "input can't be null");
+        long address = parseIpv4(input, 0, input.length());
+        Validate.isTrue(address != INVALID_IPV4, "Illegal IPv4 address: %s", input);
+        return (int) address;
+    }
+
+    /**
+     * 解析[start, end)中的IPv4，返回0-0xFFFFFFFF，非法时返回INVALID_IPV4
+     * */
+    public static long parseIpv4(CharSequence input, int start, int end) {
+        long address = 0;
+        int i = start;
+        for (int part = 0; part < 4; part++) {
+            if (part > 0) {
+                if (i == end || input.charAt(i) != '.') {
+                    return INVALID_IPV4;
+                }
+                i++;
+            }
+
+            int partStart = i;
+            int value = 0;
+            while (i < end && i - partStart < 3 && TextScanner.isDigit(input.charAt(i))) {
+                value = value * 10 + (input.charAt(i++) - '0');
+            }
+            if (i == partStart || value > 255) {
+                return INVALID_IPV4;
+            }
+            address = address << 8 | value;
+        }
+        return i == end ? address : INVALID_IPV4;
+    }
+
+    /**
+     * 解析IPv6，非法时抛出IllegalArgumentException，返回{高64位, 低64位}
+     * */
+    public static long[] toIpv6(CharSequence input) {
+        Validate.notNull(input, "input can't be null");
+        long[] address = new long[2];
+        Validate.isTrue(parseIpv6(input, 0, input.length(), address, 0), "Illegal IPv6 address: %s", input);
+        return address;
+    }
+
+    /**
+     * 解析[start, end)中的IPv6，成功时将高、低64位写入dst[dstOff]、dst[dstOff + 1]（dst为null时只校验）
+     * 非法时返回false，dst不被修改
+     * */
+    public static boolean parseIpv6(CharSequence input, int start, int end, @Nullable long[] dst, int dstOff) {
+        if (end - start < 2) {
+            return false;
+        }
+
+        // “::”之前与之后的分组分别左移累积为128位整数
+        long headHigh = 0;
+        long headLow = 0;
+        long tailHigh = 0;
+        long tailLow = 0;
+        int count = 0;
+        int gap = -1;
+
+        int i = start;
+        if (input.charAt(i) == ':') {
+            if (input.charAt(i + 1) != ':') {
+                return false;
+            }
+            gap = 0;
+            i += 2;
+        }
+
+        while (i < end) {
+            int groupStart = i;
+            int value = 0;
+            while (i < end && i - groupStart < MAX_HEX_DIGITS) {
+                int digit = hexValue(input.charAt(i));
+                if (digit < 0) {
+                    break;
+                }
+                value = value << 4 | digit;
+                i++;
+            }
+            if (i == groupStart) {
+                return false;
+            }
+
+            int groups = 1;
+            long ipv4 = 0;
+            if (i < end && input.charAt(i) == '.') {
+                ipv4 = parseIpv4(input, groupStart, end);
+                if (ipv4 == INVALID_IPV4) {
+                    return false;
+                }
+                groups = 2;
+                i = end;
+            }
+            if (count + groups > IPV6_GROUPS) {
+                return false;
+            }
+
+            for (int g = groups - 1; g >= 0; g--) {
+                long group = groups == 2 ? ipv4 >>> (g * 16) & 0xFFFF : value;
+                if (gap < 0) {
+                    headHigh = headHigh << 16 | headLow >>> 48;
+                    headLow = headLow << 16 | group;
+                } else {
+                    tailHigh = tailHigh << 16 | tailLow >>> 48;
+                    tailLow = tailLow << 16 | group;
+                }
+            }
+            count += groups;
+
+            if (i == end) {
+                break;
+            }
+            if (input.charAt(i) != ':' || ++i == end) {
+                return false;
+            }
+            if (input.charAt(i) == ':') {
+                if (gap >= 0) {
+                    return false;
+                }
+                gap = count;
+                i++;
+            }
+        }
+
+        if (gap < 0 ? count != IPV6_GROUPS : count == IPV6_GROUPS) {
+            return false;
+        }
+
+        if (dst != null) {
+            int shift = gap < 0 ? 0 : (IPV6_GROUPS - gap) * 16;
+            long high;
+            long low;
+            if (shift == 0) {
+                high = headHigh;
+                low = headLow;
+            } else if (shift >= 128) {
+                high = 0;
+                low = 0;
+            } else if (shift >= 64) {
+                high = headLow << (shift - 64);
+                low = 0;
+            } else {
+                high = headHigh << shift | headLow >>> (64 - shift);
+                low = headLow << shift;
+            }
+            dst[dstOff] = high | tailHigh;
+            dst[dstOff + 1] = low | tailLow;
+        }
+        return true;
+    }
+
+    /**
+     * 解析[start, end)中的CIDR前缀长度（0-128，不允许前导0），非法时返回INVALID_PREFIX
+     * */
+    public static int parseCidrPrefix(CharSequence input, int start, int end) {
+        int len = end - start;
+        if (len < 1 || len > 3 || !TextScanner.isDigits(input, start, end) || (len > 1 && input.charAt(start) == '0')) {
+            return INVALID_PREFIX;
+        }
+
+        int prefix = 0;
+        for (int i = start; i < end; i++) {
+            prefix = prefix * 10 + (input.charAt(i) - '0');
+        }
+        return prefix <= 128 ? prefix : INVALID_PREFIX;
+    }
+
+    /**
+     * int形式的IPv4转为点分十进制
+     * */
+    public static String formatIpv4(int address) {
+        return (address >>> 24) + "." + (address >>> 16 & 0xFF) + "." + (address >>> 8 & 0xFF) + "." + (address & 0xFF);
+    }
+
+    static int lastIndexOf(CharSequence input, char c) {
+        for (int i = input.length() - 1; i >= 0; i--) {
+            if (input.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int hexValue(char c) {
+        return c < 128 ? HEX_VALUES[c] : -1;
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.textvalidator;
+
+import com.sun.istack.internal.Nullable;
+import org.apache.commons.lang3.Validate;
+
+import java.util.Arrays;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/10/29 16:40
+ *
+ * 不可变的IP区间集合，用于大量地址的快速归属判断：
+ *  1. 通过Builder添加单个地址、CIDR或起止区间，build时排序并合并相邻、重叠的区间
+ *  2. IPv4区间以int数组、IPv6区间以long数组存储（起点与终点各一组），查询为二分查找，不分配对象
+ *  3. 存储时对最高位取反，使有符号比较等价于无符号比较
+ *  线程安全
+ */
+public class IpRangeSet {
+    private static final int SIGN_INT = Integer.MIN_VALUE;
+    private static final long SIGN_LONG = Long.MIN_VALUE;
+
+    /**
+     * contains(CharSequence)解析IPv6时复用的缓冲
+     * */
+    private static final ThreadLocal<long[]> IPV6_BUFFER = ThreadLocal.withInitial(() -> new long[2]);
+
+    private final int[] ipv4Starts;
+    private final int[] ipv4Ends;
+    /**
+     * IPv6区间，下标2i为高64位，2i+1为低64位
+     * */
+    private final long[] ipv6Starts;
+    private final long[] ipv6Ends;
+
+    private IpRangeSet(int[] ipv4Starts, int[] ipv4Ends, long[] ipv6Starts, long[] ipv6Ends) {
+        this.ipv4Starts = ipv4Starts;
+        this.ipv4Ends = ipv4Ends;
+        this.ipv6Starts = ipv6Starts;
+        this.ipv6Ends = ipv6Ends;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 判断IPv4或IPv6地址是否在集合中，非法地址返回false
+     * */
+    public boolean contains(@Nullable CharSequence address) {
+        if (address == null) {
+            return false;
+        }
+        int len = address.length();
+        long ipv4 = IpAddresses.parseIpv4(address, 0, len);
+        if (ipv4 != IpAddresses.INVALID_IPV4) {
+            return containsIpv4((int) ipv4);
+        }
+
+        long[] ipv6 = IPV6_BUFFER.get();
+        return ipv6Starts.length != 0 && IpAddresses.parseIpv6(address, 0, len, ipv6, 0)
+            && containsIpv6(ipv6[0], ipv6[1]);
+    }
+
+    public boolean containsIpv4(int address) {
+        int key = address ^ SIGN_INT;
+        int low = 0;
+        int high = ipv4Starts.length - 1;
+        // 查找最后一个起点<=key的区间
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (ipv4Starts[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high >= 0 && key <= ipv4Ends[high];
+    }
+
+    public boolean containsIpv6(long high, long low) {
+        long keyHigh = high ^ SIGN_LONG;
+        long keyLow = low ^ SIGN_LONG;
+        int lo = 0;
+        int hi = ipv6Starts.length / 2 - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(ipv6Starts[2 * mid], ipv6Starts[2 * mid + 1], keyHigh, keyLow) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return hi >= 0 && compare(keyHigh, keyLow, ipv6Ends[2 * hi], ipv6Ends[2 * hi + 1]) <= 0;
+    }
+
+    /**
+     * 合并后的IPv4区间数
+     * */
+    public int ipv4RangeCount() {
+        return ipv4Starts.length;
+    }
+
+    /**
+     * 合并后的IPv6区间数
+     * */
+    public int ipv6RangeCount() {
+        return ipv6Starts.length / 2;
+    }
+
+    public boolean isEmpty() {
+        return ipv4Starts.length == 0 && ipv6Starts.length == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "IpRangeSet{ipv4Ranges=" + ipv4RangeCount() + ", ipv6Ranges=" + ipv6RangeCount() + "}";
+    }
+
+    private static int compare(long high1, long low1, long high2, long low2) {
+        return high1 != high2 ? Long.compare(high1, high2) : Long.compare(low1, low2);
+    }
+
+    /**
+     * IpRangeSet的构造器，非线程安全
+     * */
+    public static class Builder {
+        /**
+         * IPv4区间打包为long：高32位为取反最高位的起点，低32位为终点，按long排序即按起点无符号排序
+         * */
+        private long[] ipv4 = new long[16];
+        private int ipv4Size;
+        /**
+         * IPv6区间，每4个long为：起点高、起点低、终点高、终点低（均取反最高位）
+         * */
+        private long[] ipv6 = new long[16];
+        private int ipv6Size;
+
+        private Builder() {
+        }
+
+        /**
+         * 添加单个地址或CIDR，如10.0.0.1、10.0.0.0/8、2001:db8::/32，非法时抛出IllegalArgumentException
+         * */
+        public Builder add(CharSequence addressOrCidr) {
+            Validate.notNull(addressOrCidr, "address can't be null");
+            int len = addressOrCidr.length();
+            int slash = IpAddresses.lastIndexOf(addressOrCidr, '/');
+            int end = slash < 0 ? len : slash;
+            int prefix = slash < 0 ? -1 : IpAddresses.parseCidrPrefix(addressOrCidr, slash + 1, len);
+            Validate.isTrue(slash < 0 || prefix != IpAddresses.INVALID_PREFIX, "Illegal CIDR: %s", addressOrCidr);
+
+            long ipv4 = IpAddresses.parseIpv4(addressOrCidr, 0, end);
+            if (ipv4 != IpAddresses.INVALID_IPV4) {
+                if (prefix < 0) {
+                    prefix = 32;
+                }
+                Validate.isTrue(prefix <= 32, "Illegal CIDR: %s", addressOrCidr);
+                long hostMask = (1L << (32 - prefix)) - 1;
+                return addIpv4Range((int) (ipv4 & ~hostMask), (int) (ipv4 | hostMask));
+            }
+
+            long[] ipv6 = new long[2];
+            Validate.isTrue(IpAddresses.parseIpv6(addressOrCidr, 0, end, ipv6, 0), "Illegal address: %s",
+                addressOrCidr);
+            if (prefix < 0) {
+                prefix = 128;
+            }
+            long maskHigh = prefix >= 64 ? 0 : -1L >>> prefix;
+            long maskLow = prefix >= 64 ? (prefix == 128 ? 0 : -1L >>> (prefix - 64)) : -1L;
+            return addIpv6Range(ipv6[0] & ~maskHigh, ipv6[1] & ~maskLow, ipv6[0] | maskHigh, ipv6[1] | maskLow);
+        }
+
+        /**
+         * 添加起止区间（含两端），两端须同为IPv4或IPv6
+         * */
+        public Builder addRange(CharSequence from, CharSequence to) {
+            Validate.notNull(from, "from can't be null");
+            Validate.notNull(to, "to can't be null");
+            long fromIpv4 = IpAddresses.parseIpv4(from, 0, from.length());
+            long toIpv4 = IpAddresses.parseIpv4(to, 0, to.length());
+            if (fromIpv4 != IpAddresses.INVALID_IPV4 || toIpv4 != IpAddresses.INVALID_IPV4) {
+                Validate.isTrue(fromIpv4 != IpAddresses.INVALID_IPV4 && toIpv4 != IpAddresses.INVALID_IPV4,
+                    "Illegal IPv4 range: %s - %s", from, to);
+                return addIpv4Range((int) fromIpv4, (int) toIpv4);
+            }
+
+            long[] ipv6 = new long[4];
+            Validate.isTrue(IpAddresses.parseIpv6(from, 0, from.length(), ipv6, 0)
+                && IpAddresses.parseIpv6(to, 0, to.length(), ipv6, 2), "Illegal IPv6 range: %s - %s", from, to);
+            return addIpv6Range(ipv6[0], ipv6[1], ipv6[2], ipv6[3]);
+        }
+
+        public Builder addIpv4Range(int from, int to) {
+            Validate.isTrue(Integer.compareUnsigned(from, to) <= 0, "from must not be greater than to");
+            if (ipv4Size == ipv4.length) {
+                ipv4 = Arrays.copyOf(ipv4, ipv4Size * 2);
+            }
+            ipv4[ipv4Size++] = (long) (from ^ SIGN_INT) << 32 | (to & 0xFFFFFFFFL);
+            return this;
+        }
+
+        public Builder addIpv6Range(long fromHigh, long fromLow, long toHigh, long toLow) {
+            long startHigh = fromHigh ^ SIGN_LONG;
+            long startLow = fromLow ^ SIGN_LONG;
+            long endHigh = toHigh ^ SIGN_LONG;
+            long endLow = toLow ^ SIGN_LONG;
+            Validate.isTrue(compare(startHigh, startLow, endHigh, endLow) <= 0, "from must not be greater than to");
+            if (ipv6Size + 4 > ipv6.length) {
+                ipv6 = Arrays.copyOf(ipv6, ipv6.length * 2);
+            }
+            ipv6[ipv6Size++] = startHigh;
+            ipv6[ipv6Size++] = startLow;
+            ipv6[ipv6Size++] = endHigh;
+            ipv6[ipv6Size++] = endLow;
+            return this;
+        }
+
+        /**
+         * 排序并合并重叠、相邻的区间，Builder可继续使用
+         * */
+        public IpRangeSet build() {
+            long[] sorted = Arrays.copyOf(ipv4, ipv4Size);
+            Arrays.sort(sorted);
+            int[] starts = new int[ipv4Size];
+            int[] ends = new int[ipv4Size];
+            int n = 0;
+            for (long range : sorted) {
+                int start = (int) (range >>> 32);
+                int end = (int) range ^ SIGN_INT;
+                if (n > 0 && (ends[n - 1] == Integer.MAX_VALUE || start <= ends[n - 1] + 1)) {
+                    ends[n - 1] = Math.max(ends[n - 1], end);
+                } else {
+                    starts[n] = start;
+                    ends[n] = end;
+                    n++;
+                }
+            }
+
+            int count = ipv6Size / 4;
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> compare(ipv6[4 * a], ipv6[4 * a + 1], ipv6[4 * b], ipv6[4 * b + 1]));
+            long[] starts6 = new long[count * 2];
+            long[] ends6 = new long[count * 2];
+            int m = 0;
+            for (int index : order) {
+                int base = 4 * index;
+                long startHigh = ipv6[base];
+                long startLow = ipv6[base + 1];
+                long endHigh = ipv6[base + 2];
+                long endLow = ipv6[base + 3];
+                if (m > 0 && isMergeable(ends6[2 * m - 2], ends6[2 * m - 1], startHigh, startLow)) {
+                    if (compare(endHigh, endLow, ends6[2 * m - 2], ends6[2 * m - 1]) > 0) {
+                        ends6[2 * m - 2] = endHigh;
+                        ends6[2 * m - 1] = endLow;
+                    }
+                } else {
+                    starts6[2 * m] = startHigh;
+                    starts6[2 * m + 1] = startLow;
+                    ends6[2 * m] = endHigh;
+                    ends6[2 * m + 1] = endLow;
+                    m++;
+                }
+            }
+
+            return new IpRangeSet(Arrays.copyOf(starts, n), Arrays.copyOf(ends, n), Arrays.copyOf(starts6, m * 2),
+                Arrays.copyOf(ends6, m * 2));
+        }
+
+        /**
+         * start <= end + 1（均为取反最高位后的值）
+         * */
+        private static boolean isMergeable(long endHigh, long endLow, long startHigh, long startLow) {
+            if (endLow != Long.MAX_VALUE) {
+                return compare(startHigh, startLow, endHigh, endLow + 1) <= 0;
+            }
+            return endHigh == Long.MAX_VALUE || compare(startHigh, startLow, endHigh + 1, Long.MIN_VALUE) <= 0;
+        }
+    }
+}
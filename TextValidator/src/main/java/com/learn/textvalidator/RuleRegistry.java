@@ -0,0 +1,315 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.textvalidator;
+
+import com.learn.platformutil.base.PropertiesUtil;
+import com.learn.platformutil.io.URLResourceUtil;
+import com.sun.istack.internal.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/10/29 14:10
+ *
+ * 可热更新的命名规则表，规则以properties配置：
+ *  <name>.regex=正则表达式（整串匹配）
+ *  <name>.prefix=数字前缀列表，逗号分隔，支持同长度的区间，如130-139,145,166,190-199
+ *  <name>.length=前缀规则要求的总长度（可选，不配置则不限长度），前缀之后须全为数字
+ * 说明：
+ *  1. 加载时一次性编译全部规则（前缀规则编译为按数字下标的前缀树），任一规则有误则整体不生效
+ *  2. 编译结果整体替换，读取方无锁，替换后立即可见
+ *  3. 加载的规则覆盖同名的默认规则，默认规则mobile包含166、19x等新号段
+ *  4. 每次加载都以默认规则为基础合并，之前加载的自定义规则整体被替换，不会累加
+ */
+public class RuleRegistry {
+    private static final String REGEX_SUFFIX = ".regex";
+    private static final String PREFIX_SUFFIX = ".prefix";
+    private static final String LENGTH_SUFFIX = ".length";
+
+    /**
+     * 单个前缀区间最多展开的前缀数
+     * */
+    private static final int MAX_RANGE_SIZE = 10000;
+
+    /**
+     * 默认的手机号前缀：在REGEX_MOBILE_EXACT的基础上增加166与19x号段
+     * */
+    private static final String DEFAULT_MOBILE_PREFIXES =
+        "130-139,145,147,150-153,155-159,166,170,173,175-178,180-189,190-199";
+
+    private static final Map<String, Predicate<CharSequence>> DEFAULT_RULES = defaultRules();
+
+    private static volatile Map<String, Predicate<CharSequence>> rules = DEFAULT_RULES;
+
+    private static ScheduledExecutorService watcher;
+
+    /**
+     * 按名称获取规则，不存在时返回null
+     * */
+    @Nullable
+    public static Predicate<CharSequence> get(String name) {
+        return rules.get(name);
+    }
+
+    /**
+     * 按名称校验，规则不存在时抛出IllegalArgumentException
+     * */
+    public static boolean matches(String name, @Nullable CharSequence input) {
+        Predicate<CharSequence> rule = rules.get(name);
+        Validate.isTrue(rule != null, "No rule named: %s", name);
+        return input != null && rule.test(input);
+    }
+
+    /**
+     * 当前所有规则名，只读
+     * */
+    public static Set<String> names() {
+        return rules.keySet();
+    }
+
+    /**
+     * 通过PropertiesUtil.loadFromFile加载规则，路径支持无前缀、“file://”与“classpath://”
+     * 加载结果为默认规则加上本次配置的规则，之前加载的自定义规则不再保留
+     * */
+    public static void load(String generalPath) {
+        Properties props = PropertiesUtil.loadFromFile(generalPath);
+        Validate.isTrue(!props.isEmpty(), "No rule found in: %s", generalPath);
+        load(props);
+    }
+
+    /**
+     * 同load(String)：以默认规则为基础合并props中的规则，整体替换当前规则
+     * */
+    public static void load(Properties props) {
+        Map<String, Predicate<CharSequence>> compiled = new HashMap<>(DEFAULT_RULES);
+        compiled.putAll(compile(props));
+        rules = Collections.unmodifiableMap(compiled);
+    }
+
+    /**
+     * 恢复为默认规则
+     * */
+    public static void reset() {
+        rules = DEFAULT_RULES;
+    }
+
+    /**
+     * 加载规则文件，并按period定时检查文件修改时间，有变化时重新加载
+     * 重新加载失败时保留原有规则，并在下次检查时重试；只支持位于文件系统中的文件，再次调用会替换之前的检查
+     * */
+    public static synchronized void watch(String generalPath, long period, TimeUnit unit) {
+        Validate.isTrue(period > 0, "period must be positive");
+        File file;
+        try {
+            file = URLResourceUtil.asFile(generalPath);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Can't watch: " + generalPath, e);
+        }
+
+        stopWatching();
+        long[] lastModified = {file.lastModified()};
+        load(generalPath);
+
+        watcher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "rule-registry-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watcher.scheduleWithFixedDelay(() -> {
+            long modified = file.lastModified();
+            if (modified != lastModified[0]) {
+                try {
+                    load(generalPath);
+                    // 加载成功后才记录，失败时下次检查仍会重试
+                    lastModified[0] = modified;
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        }, period, period, unit);
+    }
+
+    public static synchronized void stopWatching() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+            watcher = null;
+        }
+    }
+
+    private static Map<String, Predicate<CharSequence>> compile(Properties props) {
+        Map<String, Predicate<CharSequence>> compiled = new HashMap<>();
+        for (String key : props.stringPropertyNames()) {
+            String value = props.getProperty(key).trim();
+            if (key.endsWith(REGEX_SUFFIX)) {
+                String name = StringUtils.removeEnd(key, REGEX_SUFFIX);
+                Validate.isTrue(!props.containsKey(name + PREFIX_SUFFIX), "Rule %s has both regex and prefix", name);
+                try {
+                    compiled.put(name, new RegexRule(Pattern.compile(value)));
+                } catch (PatternSyntaxException e) {
+                    throw new IllegalArgumentException("Illegal regex of rule " + name + ": " + value, e);
+                }
+            } else if (key.endsWith(PREFIX_SUFFIX)) {
+                String name = StringUtils.removeEnd(key, PREFIX_SUFFIX);
+                String length = props.getProperty(name + LENGTH_SUFFIX);
+                compiled.put(name, PrefixRule.compile(value, length == null ? 0 : parseLength(name, length.trim())));
+            }
+        }
+        return compiled;
+    }
+
+    private static int parseLength(String name, String length) {
+        Validate.isTrue(!length.isEmpty() && TextScanner.isDigits(length, 0, length.length()) && length.length() < 10,
+            "Illegal length of rule %s: %s", name, length);
+        return Integer.parseInt(length);
+    }
+
+    private static Map<String, Predicate<CharSequence>> defaultRules() {
+        Map<String, Predicate<CharSequence>> defaults = new HashMap<>();
+        defaults.put("mobile", PrefixRule.compile(DEFAULT_MOBILE_PREFIXES, 11));
+        return Collections.unmodifiableMap(defaults);
+    }
+
+    /**
+     * 正则规则，整串匹配
+     * */
+    private static final class RegexRule implements Predicate<CharSequence> {
+        private final Pattern pattern;
+
+        private RegexRule(Pattern pattern) {
+            this.pattern = pattern;
+        }
+
+        @Override
+        public boolean test(CharSequence input) {
+            return pattern.matcher(input).matches();
+        }
+
+        @Override
+        public String toString() {
+            return "regex:" + pattern.pattern();
+        }
+    }
+
+    /**
+     * 前缀规则：前缀树以数组存储，节点i的子节点为next[i * 10 + 数字]（0表示无，根节点为0），
+     * 匹配时逐位下行，遇到终止节点即命中，其后只检查数字与长度
+     * */
+    private static final class PrefixRule implements Predicate<CharSequence> {
+        private final int[] next;
+        private final boolean[] terminal;
+        private final int length;
+        private final String source;
+
+        private PrefixRule(int[] next, boolean[] terminal, int length, String source) {
+            this.next = next;
+            this.terminal = terminal;
+            this.length = length;
+            this.source = source;
+        }
+
+        private static PrefixRule compile(String source, int length) {
+            int[] next = new int[10 * 16];
+            boolean[] terminal = new boolean[16];
+            int nodes = 1;
+
+            for (String token : StringUtils.split(source, ',')) {
+                token = token.trim();
+                if (token.isEmpty()) {
+                    continue;
+                }
+                String from = StringUtils.substringBefore(token, "-").trim();
+                String to = token.indexOf('-') < 0 ? from : StringUtils.substringAfter(token, "-").trim();
+                Validate.isTrue(!from.isEmpty() && from.length() == to.length() && from.length() < 19
+                        && TextScanner.isDigits(from, 0, from.length()) && TextScanner.isDigits(to, 0, to.length())
+                        && from.compareTo(to) <= 0, "Illegal prefix: %s", token);
+                Validate.isTrue(length == 0 || from.length() <= length, "Prefix longer than length: %s", token);
+                long start = Long.parseLong(from);
+                long end = Long.parseLong(to);
+                Validate.isTrue(end - start < MAX_RANGE_SIZE, "Prefix range too large: %s", token);
+
+                for (long prefix = start; prefix <= end; prefix++) {
+                    String digits = StringUtils.leftPad(Long.toString(prefix), from.length(), '0');
+                    int node = 0;
+                    for (int i = 0; i < digits.length(); i++) {
+                        int slot = node * 10 + (digits.charAt(i) - '0');
+                        if (next[slot] == 0) {
+                            if (nodes == terminal.length) {
+                                next = Arrays.copyOf(next, next.length * 2);
+                                terminal = Arrays.copyOf(terminal, terminal.length * 2);
+                            }
+                            next[slot] = nodes++;
+                        }
+                        node = next[slot];
+                    }
+                    terminal[node] = true;
+                }
+            }
+            Validate.isTrue(nodes > 1, "No prefix found: %s", source);
+            return new PrefixRule(Arrays.copyOf(next, nodes * 10), Arrays.copyOf(terminal, nodes), length, source);
+        }
+
+        @Override
+        public boolean test(CharSequence input) {
+            int len = input.length();
+            if (length != 0 && len != length) {
+                return false;
+            }
+
+            int node = 0;
+            boolean matched = false;
+            for (int i = 0; i < len; i++) {
+                char c = input.charAt(i);
+                if (!TextScanner.isDigit(c)) {
+                    return false;
+                }
+                if (!matched) {
+                    node = next[node * 10 + (c - '0')];
+                    if (node == 0) {
+                        return false;
+                    }
+                    matched = terminal[node];
+                }
+            }
+            return matched;
+        }
+
+        @Override
+        public String toString() {
+            return "prefix:" + source + (length == 0 ? "" : ", length:" + length);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.textvalidator;
+
+import java.beans.ConstructorProperties;
+import java.util.List;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/10/30 9:35
+ *
+ * 单条规则的统计快照，不可变
+ */
+public class RuleStatistics {
+    private final String rule;
+    private final long calls;
+    private final long failures;
+    private final long totalNanos;
+    private final long[] latencyHistogram;
+    private final List<String> failureSamples;
+
+    @ConstructorProperties({"rule", "calls", "failures", "totalNanos", "latencyHistogram", "failureSamples"})
+    public RuleStatistics(String rule, long calls, long failures, long totalNanos, long[] latencyHistogram,
+        List<String> failureSamples) {
+        this.rule = rule;
+        this.calls = calls;
+        this.failures = failures;
+        this.totalNanos = totalNanos;
+        this.latencyHistogram = latencyHistogram;
+        this.failureSamples = failureSamples;
+    }
+
+    /**
+     * 规则名：TextRule的名称、“regex:正则”或“rule:RuleRegistry中的规则名”
+     * */
+    public String getRule() {
+        return rule;
+    }
+
+    public long getCalls() {
+        return calls;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getAverageNanos() {
+        return calls == 0 ? 0 : totalNanos / calls;
+    }
+
+    /**
+     * 耗时直方图：下标0为0ns，下标i（i>0）为[2^(i-1), 2^i)ns，最后一格包含更长的耗时
+     * */
+    public long[] getLatencyHistogram() {
+        return latencyHistogram.clone();
+    }
+
+    /**
+     * 失败输入的随机抽样（已脱敏）
+     * */
+    public List<String> getFailureSamples() {
+        return failureSamples;
+    }
+
+    @Override
+    public String toString() {
+        return "RuleStatistics{rule=" + rule + ", calls=" + calls + ", failures=" + failures + ", averageNanos="
+            + getAverageNanos() + "}";
+    }
+}
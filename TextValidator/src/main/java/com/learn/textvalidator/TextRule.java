@@ -0,0 +1,141 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.textvalidator;
+
+import java.util.function.Predicate;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/10/29 9:40
+ *
+ * TextValidator的校验规则，可作为Predicate传递，用于批量校验等场景
+ */
+public enum TextRule implements Predicate<CharSequence> {
+    /**
+     * 手机号（简单）
+     * */
+    MOBILE_SIMPLE {
+        @Override
+        public boolean test(CharSequence input) {
+            return TextScanner.isMobileSimple(input);
+        }
+    },
+
+    /**
+     * 手机号（精确）
+     * */
+    MOBILE_EXACT {
+        @Override
+        public boolean test(CharSequence input) {
+            return TextScanner.isMobileExact(input);
+        }
+    },
+
+    /**
+     * 固定电话号码
+     * */
+    TEL {
+        @Override
+        public boolean test(CharSequence input) {
+            return TextScanner.isTel(input);
+        }
+    },
+
+    /**
+     * 15或18位身份证号码
+     * */
+    ID_CARD {
+        @Override
+        public boolean test(CharSequence input) {
+            return TextScanner.isIdCard(input);
+        }
+    },
+
+    /**
+     * 18位身份证号码（严格）
+     * */
+    ID_CARD_STRICT {
+        @Override
+        public boolean test(CharSequence input) {
+            return TextScanner.isIdCardStrict(input);
+        }
+    },
+
+    /**
+     * 邮箱
+     * */
+    EMAIL {
+        @Override
+        public boolean test(CharSequence input) {
+            return TextScanner.isEmail(input);
+        }
+    },
+
+    /**
+     * URL
+     * */
+    URL {
+        @Override
+        public boolean test(CharSequence input) {
+            return TextScanner.isUrl(input);
+        }
+    },
+
+    /**
+     * IPv4
+     * */
+    IPV4 {
+        @Override
+        public boolean test(CharSequence input) {
+            return TextScanner.isIpv4(input);
+        }
+    },
+
+    /**
+     * IPv6地址
+     * */
+    IPV6 {
+        @Override
+        public boolean test(CharSequence input) {
+            return IpAddresses.isIpv6(input);
+        }
+    },
+
+    /**
+     * IPv4或IPv6的CIDR
+     * */
+    CIDR {
+        @Override
+        public boolean test(CharSequence input) {
+            return IpAddresses.isCidr(input);
+        }
+    };
+
+    @Override
+    public abstract boolean test(CharSequence input);
+
+    /**
+     * 规则在位掩码中对应的位
+     * */
+    public int mask() {
+        return 1 << ordinal();
+    }
+}
@@ -0,0 +1,503 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.textvalidator;
+
+import com.sun.istack.internal.Nullable;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/10/28 10:12
+ *
+ * 手写的单次扫描校验，规则与TextValidator中的正则表达式完全一致：
+ *  不创建Matcher、不回溯、不分配对象，null与空串均返回false
+ *  正则版本保留在TextValidator中作为参照，可通过TextValidator.isMatch(TextValidator.PATTERN_XXX, input)调用
+ */
+public class TextScanner {
+    /**
+     * 手机号（精确）的3位前缀表，下标为第2、3位数字组成的两位数
+     * 与REGEX_MOBILE_EXACT一致：13x、145、147、15x（除154）、170、173、175-178、18x
+     * */
+    private static final boolean[] MOBILE_PREFIXES = new boolean[100];
+
+    /**
+     * 18位身份证ISO 7064 MOD 11-2校验：前17位加权求和对11取模，查表得到校验位
+     * */
+    private static final int[] ID_CARD_WEIGHTS = {7, 9, 10, 5, 8, 4, 2, 1, 6, 3, 7, 9, 10, 5, 8, 4, 2};
+    private static final char[] ID_CARD_CHECK_CODES = "10X98765432".toCharArray();
+    private static final int ID_CARD_MIN_YEAR = 1800;
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    /**
+     * classify使用的ASCII字符类别，非ASCII字符均为CLASS_OTHER
+     * */
+    private static final int CLASS_DIGIT = 1;
+    private static final int CLASS_LETTER = 1 << 1;
+    private static final int CLASS_UNDERSCORE = 1 << 2;
+    private static final int CLASS_DASH = 1 << 3;
+    private static final int CLASS_DOT = 1 << 4;
+    private static final int CLASS_PLUS = 1 << 5;
+    private static final int CLASS_AT = 1 << 6;
+    private static final int CLASS_COLON = 1 << 7;
+    private static final int CLASS_SLASH = 1 << 8;
+    private static final int CLASS_SPACE = 1 << 9;
+    private static final int CLASS_OTHER = 1 << 10;
+    private static final int CLASS_EMAIL = CLASS_DIGIT | CLASS_LETTER | CLASS_UNDERSCORE | CLASS_DASH | CLASS_DOT
+        | CLASS_PLUS | CLASS_AT;
+    private static final int CLASS_IP = CLASS_DIGIT | CLASS_LETTER | CLASS_DOT | CLASS_COLON;
+    private static final short[] CHAR_CLASSES = new short[128];
+
+    static {
+        for (char c = 0; c < 128; c++) {
+            int cls;
+            if (isDigit(c)) {
+                cls = CLASS_DIGIT;
+            } else if (isAsciiLetter(c)) {
+                cls = CLASS_LETTER;
+            } else if (isWhitespace(c)) {
+                cls = CLASS_SPACE;
+            } else {
+                switch (c) {
+                    case '_': cls = CLASS_UNDERSCORE; break;
+                    case '-': cls = CLASS_DASH; break;
+                    case '.': cls = CLASS_DOT; break;
+                    case '+': cls = CLASS_PLUS; break;
+                    case '@': cls = CLASS_AT; break;
+                    case ':': cls = CLASS_COLON; break;
+                    case '/': cls = CLASS_SLASH; break;
+                    default: cls = CLASS_OTHER; break;
+                }
+            }
+            CHAR_CLASSES[c] = (short) cls;
+        }
+    }
+
+    static {
+        for (int i = 0; i < 10; i++) {
+            MOBILE_PREFIXES[30 + i] = true;
+            MOBILE_PREFIXES[80 + i] = true;
+            MOBILE_PREFIXES[50 + i] = i != 4;
+        }
+        MOBILE_PREFIXES[45] = true;
+        MOBILE_PREFIXES[47] = true;
+        MOBILE_PREFIXES[70] = true;
+        MOBILE_PREFIXES[73] = true;
+        for (int i = 5; i <= 8; i++) {
+            MOBILE_PREFIXES[70 + i] = true;
+        }
+    }
+
+    /**
+     * 手机号（简单），1字头+10位数字
+     * */
+    public static boolean isMobileSimple(@Nullable CharSequence input) {
+        return input != null && input.length() == 11 && input.charAt(0) == '1' && isDigits(input, 1, 11);
+    }
+
+    /**
+     * 手机号（精确），已知3位前缀+8位数字
+     * */
+    public static boolean isMobileExact(@Nullable CharSequence input) {
+        if (input == null || input.length() != 11 || input.charAt(0) != '1') {
+            return false;
+        }
+        char c1 = input.charAt(1);
+        char c2 = input.charAt(2);
+        return isDigit(c1) && isDigit(c2) && MOBILE_PREFIXES[(c1 - '0') * 10 + (c2 - '0')] && isDigits(input, 3, 11);
+    }
+
+    /**
+     * 固定电话号码：3至4位区号，可选的'-'，6至8位号码
+     * */
+    public static boolean isTel(@Nullable CharSequence input) {
+        if (input == null) {
+            return false;
+        }
+
+        int len = input.length();
+        int dash = -1;
+        for (int i = 0; i < len; i++) {
+            char c = input.charAt(i);
+            if (c == '-') {
+                if (dash >= 0) {
+                    return false;
+                }
+                dash = i;
+            } else if (!isDigit(c)) {
+                return false;
+            }
+        }
+
+        if (dash < 0) {
+            return len >= 9 && len <= 12;
+        }
+        int number = len - dash - 1;
+        return (dash == 3 || dash == 4) && number >= 6 && number <= 8;
+    }
+
+    /**
+     * 15或18位身份证号码
+     * */
+    public static boolean isIdCard(@Nullable CharSequence input) {
+        return isIdCard15(input) || isIdCard18(input);
+    }
+
+    /**
+     * 15位身份证号码：首位非0，第9至12位为月日
+     * */
+    public static boolean isIdCard15(@Nullable CharSequence input) {
+        return input != null && input.length() == 15
+            && isNonZeroDigit(input.charAt(0)) && isDigits(input, 1, 8)
+            && isMonthDay(input, 8) && isDigits(input, 12, 15);
+    }
+
+    /**
+     * 18位身份证号码：首位非0，年份首位非0，第11至14位为月日，末位为数字或X
+     * */
+    public static boolean isIdCard18(@Nullable CharSequence input) {
+        if (input == null || input.length() != 18) {
+            return false;
+        }
+        char last = input.charAt(17);
+        return isNonZeroDigit(input.charAt(0)) && isDigits(input, 1, 6)
+            && isNonZeroDigit(input.charAt(6)) && isDigits(input, 7, 10)
+            && isMonthDay(input, 10) && isDigits(input, 14, 17)
+            && (isDigit(last) || last == 'X' || last == 'x');
+    }
+
+    /**
+     * 18位身份证号码（严格）：单次扫描同时完成
+     *  1. 前6位行政区划代码在IdCardRegions中存在
+     *  2. 出生日期为真实日期（含闰年），不早于1800年且不晚于当前日期
+     *  3. 末位校验码符合ISO 7064 MOD 11-2
+     * */
+    public static boolean isIdCardStrict(@Nullable CharSequence input) {
+        if (input == null || input.length() != 18) {
+            return false;
+        }
+
+        int sum = 0;
+        int region = 0;
+        int year = 0;
+        int month = 0;
+        int day = 0;
+        for (int i = 0; i < 17; i++) {
+            char c = input.charAt(i);
+            if (!isDigit(c)) {
+                return false;
+            }
+            int digit = c - '0';
+            sum += digit * ID_CARD_WEIGHTS[i];
+            if (i < 6) {
+                region = region * 10 + digit;
+            } else if (i < 10) {
+                year = year * 10 + digit;
+            } else if (i < 12) {
+                month = month * 10 + digit;
+            } else if (i < 14) {
+                day = day * 10 + digit;
+            }
+        }
+
+        char check = input.charAt(17);
+        if (check == 'x') {
+            check = 'X';
+        }
+        return check == ID_CARD_CHECK_CODES[sum % 11]
+            && isValidBirthday(year, month, day)
+            && IdCardRegions.contains(region);
+    }
+
+    /**
+     * 邮箱：\w+([-+.]\w+)*@\w+([-.]\w+)*\.\w+([-.]\w+)*
+     * 即由单个分隔符连接的若干单词，'@'之后至少有两个单词，且至少一个分隔符为'.'
+     * */
+    public static boolean isEmail(@Nullable CharSequence input) {
+        if (input == null) {
+            return false;
+        }
+
+        int len = input.length();
+        int i = 0;
+        boolean afterWord = false;
+        for (; i < len; i++) {
+            char c = input.charAt(i);
+            if (isWordChar(c)) {
+                afterWord = true;
+            } else if (c == '-' || c == '+' || c == '.') {
+                if (!afterWord) {
+                    return false;
+                }
+                afterWord = false;
+            } else {
+                break;
+            }
+        }
+        if (!afterWord || i == len || input.charAt(i) != '@') {
+            return false;
+        }
+
+        boolean hasDot = false;
+        afterWord = false;
+        for (i++; i < len; i++) {
+            char c = input.charAt(i);
+            if (isWordChar(c)) {
+                afterWord = true;
+            } else if (c == '-' || c == '.') {
+                if (!afterWord) {
+                    return false;
+                }
+                hasDot |= c == '.';
+                afterWord = false;
+            } else {
+                return false;
+            }
+        }
+        return afterWord && hasDot;
+    }
+
+    /**
+     * URL：英文协议名 + "://" + 不含空白字符的剩余部分
+     * */
+    public static boolean isUrl(@Nullable CharSequence input) {
+        if (input == null) {
+            return false;
+        }
+
+        int len = input.length();
+        int i = 0;
+        while (i < len && isAsciiLetter(input.charAt(i))) {
+            i++;
+        }
+        if (i == 0 || i + 3 > len
+            || input.charAt(i) != ':' || input.charAt(i + 1) != '/' || input.charAt(i + 2) != '/') {
+            return false;
+        }
+        for (i += 3; i < len; i++) {
+            if (isWhitespace(input.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * IPv4：4段以'.'分隔的1至3位数字，每段不大于255（允许前导0）
+     * */
+    public static boolean isIpv4(@Nullable CharSequence input) {
+        if (input == null) {
+            return false;
+        }
+
+        int len = input.length();
+        int i = 0;
+        for (int part = 0; part < 4; part++) {
+            if (part > 0) {
+                if (i == len || input.charAt(i) != '.') {
+                    return false;
+                }
+                i++;
+            }
+
+            int start = i;
+            int value = 0;
+            while (i < len && i - start < 3 && isDigit(input.charAt(i))) {
+                value = value * 10 + (input.charAt(i++) - '0');
+            }
+            if (i == start || value > 255) {
+                return false;
+            }
+        }
+        return i == len;
+    }
+
+    /**
+     * 识别输入满足哪些规则，返回以TextRule.mask()组合的位掩码，结果与逐条调用TextRule.test一致
+     * 先单次扫描得到字符类别的并集与'-'、'.'的个数，按字符类别分派，只对仍可能满足的规则做确认：
+     *  纯数字 -> 手机号、固定电话、身份证；数字与一个'-' -> 固定电话；18位数字与X -> 身份证
+     *  数字与3个'.' -> IPv4；含'@'且只含邮箱字符 -> 邮箱；含':'与'/'且无空白 -> URL
+     *  只含字母数字、'.'与':'且含':' -> IPv6；另含'/' -> CIDR
+     * */
+    public static int classify(@Nullable CharSequence input) {
+        if (input == null || input.length() == 0) {
+            return 0;
+        }
+
+        int len = input.length();
+        int classes = 0;
+        int dashes = 0;
+        int dots = 0;
+        for (int i = 0; i < len; i++) {
+            char c = input.charAt(i);
+            int cls = c < 128 ? CHAR_CLASSES[c] : CLASS_OTHER;
+            classes |= cls;
+            if (cls == CLASS_DASH) {
+                dashes++;
+            } else if (cls == CLASS_DOT) {
+                dots++;
+            }
+        }
+
+        int mask = 0;
+        if (classes == CLASS_DIGIT) {
+            if (len == 11 && input.charAt(0) == '1') {
+                mask |= TextRule.MOBILE_SIMPLE.mask();
+                if (isMobileExact(input)) {
+                    mask |= TextRule.MOBILE_EXACT.mask();
+                }
+            }
+            if (len >= 9 && len <= 12) {
+                mask |= TextRule.TEL.mask();
+            }
+            mask |= classifyIdCard(input, len);
+        } else if (classes == (CLASS_DIGIT | CLASS_DASH)) {
+            if (dashes == 1 && isTel(input)) {
+                mask |= TextRule.TEL.mask();
+            }
+        } else if (classes == (CLASS_DIGIT | CLASS_LETTER)) {
+            mask |= classifyIdCard(input, len);
+        } else if (classes == (CLASS_DIGIT | CLASS_DOT)) {
+            if (dots == 3 && isIpv4(input)) {
+                mask |= TextRule.IPV4.mask();
+            }
+        }
+
+        if ((classes & CLASS_AT) != 0 && (classes & ~CLASS_EMAIL) == 0 && isEmail(input)) {
+            mask |= TextRule.EMAIL.mask();
+        }
+        if ((classes & (CLASS_COLON | CLASS_SLASH)) == (CLASS_COLON | CLASS_SLASH) && (classes & CLASS_SPACE) == 0
+            && isUrl(input)) {
+            mask |= TextRule.URL.mask();
+        }
+        if ((classes & ~CLASS_IP) == 0) {
+            if ((classes & CLASS_COLON) != 0 && IpAddresses.isIpv6(input)) {
+                mask |= TextRule.IPV6.mask();
+            }
+        } else if ((classes & ~(CLASS_IP | CLASS_SLASH)) == 0 && IpAddresses.isCidr(input)) {
+            mask |= TextRule.CIDR.mask();
+        }
+        return mask;
+    }
+
+    private static int classifyIdCard(CharSequence input, int len) {
+        if (len == 15) {
+            return isIdCard15(input) ? TextRule.ID_CARD.mask() : 0;
+        }
+        if (len == 18 && isIdCard18(input)) {
+            return isIdCardStrict(input) ? TextRule.ID_CARD.mask() | TextRule.ID_CARD_STRICT.mask()
+                : TextRule.ID_CARD.mask();
+        }
+        return 0;
+    }
+
+    /**
+     * [start, end)均为数字
+     * */
+    static boolean isDigits(CharSequence input, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!isDigit(input.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 月份00-12，日期00-31
+     * */
+    private static boolean isMonthDay(CharSequence input, int index) {
+        char m0 = input.charAt(index);
+        char m1 = input.charAt(index + 1);
+        char d0 = input.charAt(index + 2);
+        char d1 = input.charAt(index + 3);
+        boolean month = (m0 == '0' && isDigit(m1)) || (m0 == '1' && m1 >= '0' && m1 <= '2');
+        boolean day = (d0 >= '0' && d0 <= '2' && isDigit(d1)) || (d0 == '3' && (d1 == '0' || d1 == '1'));
+        return month && day;
+    }
+
+    /**
+     * 日期真实存在，且不晚于今天（按UTC计算，容许一天的时区误差）
+     * */
+    private static boolean isValidBirthday(int year, int month, int day) {
+        if (year < ID_CARD_MIN_YEAR || month < 1 || month > 12 || day < 1) {
+            return false;
+        }
+        if (day > daysOfMonth(year, month)) {
+            return false;
+        }
+        return epochDay(year, month, day) <= System.currentTimeMillis() / MILLIS_PER_DAY + 1;
+    }
+
+    static int daysOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    static boolean isLeapYear(int year) {
+        return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+    }
+
+    /**
+     * 公历日期距1970-01-01的天数（适用于公元元年以后）
+     * */
+    private static long epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = y / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isNonZeroDigit(char c) {
+        return c >= '1' && c <= '9';
+    }
+
+    static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    /**
+     * 与正则的\w一致：[a-zA-Z_0-9]
+     * */
+    static boolean isWordChar(char c) {
+        return isAsciiLetter(c) || isDigit(c) || c == '_';
+    }
+
+    /**
+     * 与正则的\s一致：[ \t\n\x0B\f\r]
+     * */
+    static boolean isWhitespace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+}
@@ -18,6 +18,7 @@ package com.learn.textvalidator;
 import com.sun.istack.internal.Nullable;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.EnumSet;
 import java.util.regex.Pattern;
 
 /**
@@ -32,13 +33,19 @@ import java.util.regex.Pattern;
  * 通过正则表达式判断是否正确的手机号、固定电话、身份证、邮箱等
  *
  * 从AndroidUtilCode的RegexUtils移植，性能优化将正则表达式为预编译，并修改了TEL的正则表达式
+ *
+ * 各isXxx方法使用TextScanner的手写单次扫描实现，预编译的正则保留为public常量作为规则参照
+ *
+ * 开启ValidationMetrics后，各isXxx与isMatch会记录调用次数、失败次数、耗时及失败样本
  */
 public class TextValidator {
+    private static final TextRule[] RULES = TextRule.values();
+
     /**
      * 正则：手机号（简单），1字头+10位数字即可
      * */
     private static final String REGEX_MOBILE_SIMPLE = "^[1]\\d{10}$";
-    private static final Pattern PATTERN_REGEX_MOBILE_SIMPLE = Pattern.compile(REGEX_MOBILE_SIMPLE);
+    public static final Pattern PATTERN_REGEX_MOBILE_SIMPLE = Pattern.compile(REGEX_MOBILE_SIMPLE);
 
     /**
      * 正则：手机号（精确），已知3位前缀+8位数字
@@ -58,85 +65,123 @@ public class TextValidator {
      *     虚拟运营商：170
      * </p>
      * */
-    private static final String REGEX_MOBILE_EXACT = "^((13[0-9])|(14[5,7])|(15[0-3,5-9])|(17[0,3,5-8])|(18[0-9])|(147))\\d{8}$";
-    private static final Pattern PATTERN_REGEX_MOBILE_EXACT = Pattern.compile(REGEX_MOBILE_EXACT);
+    private static final String REGEX_MOBILE_EXACT = "^((13[0-9])|(14[57])|(15[0-35-9])|(17[035-8])|(18[0-9]))\\d{8}$";
+    public static final Pattern PATTERN_REGEX_MOBILE_EXACT = Pattern.compile(REGEX_MOBILE_EXACT);
 
     /**
      * 正则：固定电话号码，可带区号，然后6至少8位数字
      * */
     private static final String REGEX_TEL = "^(\\d{3,4}-?\\d{6,8})";
-    private static final Pattern PATTERN_REGEX_TEL = Pattern.compile(REGEX_TEL);
+    public static final Pattern PATTERN_REGEX_TEL = Pattern.compile(REGEX_TEL);
 
     /**
      * 正则：身份证号码15位，数字且关于生日的部分必须正确
      * */
-    private static final String REGEX_ID_CARD15 = "^[1-9]\\d{7}((0\\d)|(1[0-2]))(([0|1|2]\\d)|3[0-1])\\d{3}$";
-    private static final Pattern PATTERN_REGEX_ID_CARD15 = Pattern.compile(REGEX_ID_CARD15);
+    private static final String REGEX_ID_CARD15 = "^[1-9]\\d{7}((0\\d)|(1[0-2]))(([012]\\d)|3[0-1])\\d{3}$";
+    public static final Pattern PATTERN_REGEX_ID_CARD15 = Pattern.compile(REGEX_ID_CARD15);
 
     /**
      * 正则：身份证号码18位，数字且关于生日的部分必须正确
      * */
-    private static final String REGEX_ID_CARD18 = "^[1-9]\\d{5}[1-9]\\d{3}((0\\d)|(1[0-2]))(([0|1|2]\\d)|3[0-1])\\d{3}([0-9Xx])$";
-    private static final Pattern PATTERN_REGEX_ID_CARD18 = Pattern.compile(REGEX_ID_CARD18);
+    private static final String REGEX_ID_CARD18 = "^[1-9]\\d{5}[1-9]\\d{3}((0\\d)|(1[0-2]))(([012]\\d)|3[0-1])\\d{3}([0-9Xx])$";
+    public static final Pattern PATTERN_REGEX_ID_CARD18 = Pattern.compile(REGEX_ID_CARD18);
 
     /**
      * 正则：邮箱，有效字符（不支持中文），中间必须有@，后半部分必须有.
      * */
     private static final String REGEX_EMAIL = "^\\w+([-+.]\\w+)*@\\w+([-.]\\w+)*\\.\\w+([-.]\\w+)*$";
-    private static final Pattern PATTERN_REGEX_EMAIL = Pattern.compile(REGEX_EMAIL);
+    public static final Pattern PATTERN_REGEX_EMAIL = Pattern.compile(REGEX_EMAIL);
 
     /**
      * 正则：URL,必须有“://”，前面必须是英文，后面不能有空格
      * */
     private static final String REGEX_ULR = "[a-zA-Z]+://[^\\s]*";
-    private static final Pattern PATTERN_REGEX_URL = Pattern.compile(REGEX_ULR);
+    public static final Pattern PATTERN_REGEX_URL = Pattern.compile(REGEX_ULR);
 
     /**
      * 正则：IP地址（ipv4）
      * */
-    private static final String REGEX_IPV4 = "((2[0-4]\\d|25[0-5]|[01]?\\d\\d?)\\.){3}(2[0-4]\\d|25[0-5]|[01]?\\d\\d?)";
-    private static final Pattern PATTERN_REGEX_IPV4 = Pattern.compile(REGEX_IPV4);
+    private static final String REGEX_IPV4 = "^((2[0-4]\\d|25[0-5]|[01]?\\d\\d?)\\.){3}(2[0-4]\\d|25[0-5]|[01]?\\d\\d?)$";
+    public static final Pattern PATTERN_REGEX_IPV4 = Pattern.compile(REGEX_IPV4);
 
     /**
      * 验证手机号（简单）
      */
     public static boolean isMobileSimple(@Nullable CharSequence input) {
-        return isMatch(PATTERN_REGEX_MOBILE_SIMPLE, input);
+        if (ValidationMetrics.enabled) {
+            return ValidationMetrics.record(TextRule.MOBILE_SIMPLE, input);
+        }
+        return TextScanner.isMobileSimple(input);
     }
 
     /**
      * 验证手机号（精确）
      * */
     public static boolean isMobileExact(@Nullable CharSequence input) {
-        return isMatch(PATTERN_REGEX_MOBILE_EXACT, input);
+        if (ValidationMetrics.enabled) {
+            return ValidationMetrics.record(TextRule.MOBILE_EXACT, input);
+        }
+        return TextScanner.isMobileExact(input);
     }
 
     /**
      * 验证固定电话号码
      * */
     public static boolean isTel(@Nullable CharSequence input) {
-        return isMatch(PATTERN_REGEX_TEL, input);
+        if (ValidationMetrics.enabled) {
+            return ValidationMetrics.record(TextRule.TEL, input);
+        }
+        return TextScanner.isTel(input);
     }
 
     /**
      * 验证15或18位身份证号码
      * */
     public static boolean isIdCard(@Nullable CharSequence input) {
-        return isMatch(PATTERN_REGEX_ID_CARD15, input) || isMatch(PATTERN_REGEX_ID_CARD18, input);
+        if (ValidationMetrics.enabled) {
+            return ValidationMetrics.record(TextRule.ID_CARD, input);
+        }
+        return TextScanner.isIdCard(input);
+    }
+
+    /**
+     * 严格验证18位身份证号码：行政区划代码、出生日期与校验码
+     * */
+    public static boolean isIdCardStrict(@Nullable CharSequence input) {
+        if (ValidationMetrics.enabled) {
+            return ValidationMetrics.record(TextRule.ID_CARD_STRICT, input);
+        }
+        return TextScanner.isIdCardStrict(input);
     }
 
     /**
      * 验证邮箱
      * */
     public static boolean isEmail(@Nullable CharSequence input) {
-        return isMatch(PATTERN_REGEX_EMAIL, input);
+        if (ValidationMetrics.enabled) {
+            return ValidationMetrics.record(TextRule.EMAIL, input);
+        }
+        return TextScanner.isEmail(input);
+    }
+
+    /**
+     * 验证邮箱（支持国际化地址）：限制总长度，域名支持IDN，见EmailValidator
+     * */
+    public static boolean isInternationalEmail(@Nullable CharSequence input) {
+        if (ValidationMetrics.enabled) {
+            return ValidationMetrics.recordInternationalEmail(input);
+        }
+        return EmailValidator.isValid(input);
     }
 
     /**
      * 验证URL
      */
     public static boolean isUrl(@Nullable CharSequence input) {
-        return isMatch(PATTERN_REGEX_URL, input);
+        if (ValidationMetrics.enabled) {
+            return ValidationMetrics.record(TextRule.URL, input);
+        }
+        return TextScanner.isUrl(input);
     }
 
 
@@ -144,10 +189,86 @@ public class TextValidator {
      * 验证IPv4
      */
     public static boolean isIpv4(@Nullable CharSequence input) {
-        return isMatch(PATTERN_REGEX_IPV4, input);
+        if (ValidationMetrics.enabled) {
+            return ValidationMetrics.record(TextRule.IPV4, input);
+        }
+        return TextScanner.isIpv4(input);
+    }
+
+    /**
+     * 验证IPv6地址，支持“::”缩写与末尾内嵌IPv4
+     * */
+    public static boolean isIpv6(@Nullable CharSequence input) {
+        if (ValidationMetrics.enabled) {
+            return ValidationMetrics.record(TextRule.IPV6, input);
+        }
+        return IpAddresses.isIpv6(input);
+    }
+
+    /**
+     * 验证IPv4或IPv6的CIDR，如10.0.0.0/8、2001:db8::/32
+     * */
+    public static boolean isCidr(@Nullable CharSequence input) {
+        if (ValidationMetrics.enabled) {
+            return ValidationMetrics.record(TextRule.CIDR, input);
+        }
+        return IpAddresses.isCidr(input);
+    }
+
+    /**
+     * 解析IPv4为int（无符号语义），非法时抛出IllegalArgumentException
+     * */
+    public static int parseIpv4(CharSequence input) {
+        return IpAddresses.toIpv4(input);
+    }
+
+    /**
+     * 解析IPv6为{高64位, 低64位}，非法时抛出IllegalArgumentException
+     * 热点路径请使用IpAddresses.parseIpv6写入复用的数组
+     * */
+    public static long[] parseIpv6(CharSequence input) {
+        return IpAddresses.toIpv6(input);
+    }
+
+    /**
+     * 识别输入满足的全部规则（手机号、固定电话、身份证、邮箱、URL、IP地址、CIDR），单次扫描按字符类别分派
+     * */
+    public static EnumSet<TextRule> classify(@Nullable CharSequence input) {
+        int mask = TextScanner.classify(input);
+        EnumSet<TextRule> rules = EnumSet.noneOf(TextRule.class);
+        for (TextRule rule : RULES) {
+            if ((mask & rule.mask()) != 0) {
+                rules.add(rule);
+            }
+        }
+        return rules;
+    }
+
+    /**
+     * 同classify，返回以TextRule.mask()组合的位掩码，不分配对象
+     * */
+    public static int classifyMask(@Nullable CharSequence input) {
+        return TextScanner.classify(input);
+    }
+
+    /**
+     * 按RuleRegistry中的命名规则校验，如isMatch("mobile", input)，规则可从配置文件热更新
+     * */
+    public static boolean isMatch(String ruleName, @Nullable CharSequence input) {
+        if (ValidationMetrics.enabled) {
+            return ValidationMetrics.record(ruleName, input);
+        }
+        return RuleRegistry.matches(ruleName, input);
     }
 
     public static boolean isMatch(Pattern pattern, CharSequence input) {
+        if (ValidationMetrics.enabled) {
+            return ValidationMetrics.record(pattern, input);
+        }
+        return matches(pattern, input);
+    }
+
+    static boolean matches(Pattern pattern, CharSequence input) {
         return StringUtils.isNotEmpty(input) && pattern.matcher(input).matches();
     }
 }
\ No newline at end of file
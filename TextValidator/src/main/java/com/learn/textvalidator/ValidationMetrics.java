@@ -0,0 +1,314 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.textvalidator;
+
+import com.sun.istack.internal.Nullable;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/10/30 9:40
+ *
+ * TextValidator的可选统计：
+ *  1. 默认关闭，关闭时TextValidator只多读取一个volatile字段，不计时、不分配对象
+ *  2. 开启后按规则记录调用次数、失败次数与耗时直方图，均为LongAdder，多线程下不争用
+ *  3. 每条规则以蓄水池抽样保留最多SAMPLE_SIZE个失败输入，首3位与末2位之外的字母数字替换为'*'
+ *  4. 可通过registerMBean注册到JMX，在JConsole等工具中查看与开关
+ *  5. isMatch(Pattern)按正则表达式文本统计，最多MAX_PATTERN_STATS条，超出后合并计入"regex:<other>"，
+ *     避免调用方每次新编译Pattern时统计无限增长
+ */
+public class ValidationMetrics {
+    public static final String OBJECT_NAME = "com.learn.textvalidator:type=ValidationMetrics";
+
+    /**
+     * 每条规则保留的失败样本数
+     * */
+    public static final int SAMPLE_SIZE = 16;
+
+    private static final int HISTOGRAM_BUCKETS = 32;
+    private static final int MAX_SAMPLE_LENGTH = 64;
+    private static final int KEEP_HEAD = 3;
+    private static final int KEEP_TAIL = 2;
+
+    /**
+     * 单独统计的正则表达式数量上限
+     * */
+    static final int MAX_PATTERN_STATS = 256;
+
+    static volatile boolean enabled;
+
+    private static final Stats[] RULE_STATS = new Stats[TextRule.values().length];
+    private static final Map<String, Stats> PATTERN_STATS = new ConcurrentHashMap<>();
+    private static final Stats OTHER_PATTERN_STATS = new Stats("regex:<other>");
+    private static final Stats INTERNATIONAL_EMAIL_STATS = new Stats("INTERNATIONAL_EMAIL");
+    private static final Map<String, Stats> NAMED_STATS = new ConcurrentHashMap<>();
+
+    static {
+        for (TextRule rule : TextRule.values()) {
+            RULE_STATS[rule.ordinal()] = new Stats(rule.name());
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        ValidationMetrics.enabled = enabled;
+    }
+
+    /**
+     * 清空全部统计，不影响开关
+     * */
+    public static void reset() {
+        for (Stats stats : RULE_STATS) {
+            stats.reset();
+        }
+        PATTERN_STATS.clear();
+        OTHER_PATTERN_STATS.reset();
+        INTERNATIONAL_EMAIL_STATS.reset();
+        NAMED_STATS.clear();
+    }
+
+    /**
+     * 被调用过的规则的统计快照
+     * */
+    public static List<RuleStatistics> snapshot() {
+        List<RuleStatistics> snapshot = new ArrayList<>();
+        for (Stats stats : RULE_STATS) {
+            if (stats.calls.sum() > 0) {
+                snapshot.add(stats.snapshot());
+            }
+        }
+        if (INTERNATIONAL_EMAIL_STATS.calls.sum() > 0) {
+            snapshot.add(INTERNATIONAL_EMAIL_STATS.snapshot());
+        }
+        for (Stats stats : PATTERN_STATS.values()) {
+            snapshot.add(stats.snapshot());
+        }
+        if (OTHER_PATTERN_STATS.calls.sum() > 0) {
+            snapshot.add(OTHER_PATTERN_STATS.snapshot());
+        }
+        for (Stats stats : NAMED_STATS.values()) {
+            snapshot.add(stats.snapshot());
+        }
+        return snapshot;
+    }
+
+    /**
+     * 注册到平台MBeanServer，重复注册时忽略
+     * */
+    public static void registerMBean() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(new StandardMBean(new MXBean(), ValidationMetricsMXBean.class, true),
+                new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // 已注册
+        } catch (JMException e) {
+            throw new IllegalStateException("Can't register MBean: " + OBJECT_NAME, e);
+        }
+    }
+
+    public static void unregisterMBean() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Can't unregister MBean: " + OBJECT_NAME, e);
+        }
+    }
+
+    static boolean record(TextRule rule, @Nullable CharSequence input) {
+        long start = System.nanoTime();
+        boolean result = rule.test(input);
+        RULE_STATS[rule.ordinal()].record(System.nanoTime() - start, result, input);
+        return result;
+    }
+
+    static boolean record(Pattern pattern, @Nullable CharSequence input) {
+        long start = System.nanoTime();
+        boolean result = TextValidator.matches(pattern, input);
+        long elapsed = System.nanoTime() - start;
+        patternStats(pattern.pattern()).record(elapsed, result, input);
+        return result;
+    }
+
+    static boolean recordInternationalEmail(@Nullable CharSequence input) {
+        long start = System.nanoTime();
+        boolean result = EmailValidator.isValid(input);
+        INTERNATIONAL_EMAIL_STATS.record(System.nanoTime() - start, result, input);
+        return result;
+    }
+
+    static boolean record(String ruleName, @Nullable CharSequence input) {
+        long start = System.nanoTime();
+        boolean result = RuleRegistry.matches(ruleName, input);
+        long elapsed = System.nanoTime() - start;
+        NAMED_STATS.computeIfAbsent(ruleName, name -> new Stats("rule:" + name)).record(elapsed, result, input);
+        return result;
+    }
+
+    /**
+     * 已统计的正则直接返回；数量达到上限后新的正则计入OTHER_PATTERN_STATS，并发时可能略超上限
+     * */
+    private static Stats patternStats(String regex) {
+        Stats stats = PATTERN_STATS.get(regex);
+        if (stats != null) {
+            return stats;
+        }
+        if (PATTERN_STATS.size() >= MAX_PATTERN_STATS) {
+            return OTHER_PATTERN_STATS;
+        }
+        return PATTERN_STATS.computeIfAbsent(regex, r -> new Stats("regex:" + r));
+    }
+
+    /**
+     * 脱敏：最多保留前MAX_SAMPLE_LENGTH个字符，首尾之外的字母数字替换为'*'，分隔符等保留以便判断格式
+     * */
+    static String mask(@Nullable CharSequence input) {
+        if (input == null) {
+            return "null";
+        }
+
+        int len = Math.min(input.length(), MAX_SAMPLE_LENGTH);
+        boolean truncated = len < input.length();
+        boolean keep = len > KEEP_HEAD + KEEP_TAIL + 1;
+        StringBuilder masked = new StringBuilder(len + 3);
+        for (int i = 0; i < len; i++) {
+            char c = input.charAt(i);
+            boolean visible = keep && (i < KEEP_HEAD || (!truncated && i >= len - KEEP_TAIL));
+            masked.append(visible || !Character.isLetterOrDigit(c) ? c : '*');
+        }
+        if (truncated) {
+            masked.append("...");
+        }
+        return masked.toString();
+    }
+
+    /**
+     * 单条规则的计数器
+     * */
+    private static final class Stats {
+        private final String name;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder[] histogram = new LongAdder[HISTOGRAM_BUCKETS];
+        private final AtomicReferenceArray<String> samples = new AtomicReferenceArray<>(SAMPLE_SIZE);
+
+        private Stats(String name) {
+            this.name = name;
+            for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+                histogram[i] = new LongAdder();
+            }
+        }
+
+        private void record(long nanos, boolean passed, CharSequence input) {
+            calls.increment();
+            totalNanos.add(nanos);
+            histogram[Math.min(64 - Long.numberOfLeadingZeros(Math.max(nanos, 0)), HISTOGRAM_BUCKETS - 1)].increment();
+            if (!passed) {
+                failures.increment();
+                sample(input);
+            }
+        }
+
+        /**
+         * 蓄水池抽样：第n个失败输入以SAMPLE_SIZE/n的概率替换随机一个样本，并发时n为近似值
+         * */
+        private void sample(CharSequence input) {
+            long seen = failures.sum();
+            long slot = seen <= SAMPLE_SIZE ? seen - 1 : ThreadLocalRandom.current().nextLong(seen);
+            if (slot >= 0 && slot < SAMPLE_SIZE) {
+                samples.set((int) slot, mask(input));
+            }
+        }
+
+        private void reset() {
+            calls.reset();
+            failures.reset();
+            totalNanos.reset();
+            for (LongAdder bucket : histogram) {
+                bucket.reset();
+            }
+            for (int i = 0; i < SAMPLE_SIZE; i++) {
+                samples.set(i, null);
+            }
+        }
+
+        private RuleStatistics snapshot() {
+            long[] buckets = new long[HISTOGRAM_BUCKETS];
+            for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+                buckets[i] = histogram[i].sum();
+            }
+            List<String> sampled = new ArrayList<>(SAMPLE_SIZE);
+            for (int i = 0; i < SAMPLE_SIZE; i++) {
+                String sample = samples.get(i);
+                if (sample != null) {
+                    sampled.add(sample);
+                }
+            }
+            return new RuleStatistics(name, calls.sum(), failures.sum(), totalNanos.sum(), buckets,
+                Collections.unmodifiableList(sampled));
+        }
+    }
+
+    private static final class MXBean implements ValidationMetricsMXBean {
+        @Override
+        public boolean isEnabled() {
+            return ValidationMetrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enabled) {
+            ValidationMetrics.setEnabled(enabled);
+        }
+
+        @Override
+        public List<RuleStatistics> getRules() {
+            return snapshot();
+        }
+
+        @Override
+        public void reset() {
+            ValidationMetrics.reset();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.textvalidator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/10/29 10:30
+ *
+ * BeanValidator的校验结果，可通过clear重复使用，非线程安全
+ */
+public class ValidationResult {
+    private final List<Violation> violations = new ArrayList<>();
+
+    public boolean isValid() {
+        return violations.isEmpty();
+    }
+
+    public int getViolationCount() {
+        return violations.size();
+    }
+
+    /**
+     * 按校验顺序排列的违例，只读
+     * */
+    public List<Violation> getViolations() {
+        return Collections.unmodifiableList(violations);
+    }
+
+    /**
+     * 清空结果以便复用
+     * */
+    public void clear() {
+        violations.clear();
+    }
+
+    void add(int index, String property, TextRule rule, String message, CharSequence value) {
+        violations.add(new Violation(index, property, rule, message, value));
+    }
+
+    @Override
+    public String toString() {
+        return "ValidationResult{violations=" + violations + "}";
+    }
+
+    /**
+     * 单条违例
+     * */
+    public static class Violation {
+        private final int index;
+        private final String property;
+        private final TextRule rule;
+        private final String message;
+        private final CharSequence value;
+
+        Violation(int index, String property, TextRule rule, String message, CharSequence value) {
+            this.index = index;
+            this.property = property;
+            this.rule = rule;
+            this.message = message;
+            this.value = value;
+        }
+
+        /**
+         * 对象在List中的下标，校验单个对象时为-1
+         * */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * 字段名，标注在方法上时为方法名
+         * */
+        public String getProperty() {
+            return property;
+        }
+
+        /**
+         * 未通过的规则，必填项为空时为null
+         * */
+        public TextRule getRule() {
+            return rule;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public CharSequence getValue() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return (index >= 0 ? "[" + index + "]." : "") + property + ": " + message;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.textvalidator.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/10/29 10:00
+ *
+ * 身份证号码（15位或18位），由BeanValidator校验，可标注在CharSequence类型的字段或无参方法上
+ */
+@Documented
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface IdCard {
+    /**
+     * 是否严格校验18位身份证的校验码、出生日期与行政区划，开启后不再接受15位身份证
+     * */
+    boolean strict() default false;
+
+    /**
+     * 校验失败时的提示信息
+     * */
+    String message() default "身份证号码格式不正确";
+
+    /**
+     * 是否必填，非必填时null与空字符串视为通过
+     * */
+    boolean required() default false;
+}
@@ -15,15 +15,23 @@
  */
 package com.learn.textvalidator.text;
 
-import org.apache.commons.codec.DecoderException;
-import org.apache.commons.codec.binary.Base64;
-import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.text.StringEscapeUtils;
+import org.apache.commons.text.translate.EntityArrays;
 
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
-import java.net.URLEncoder;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 /**
  * <p> Title: </p>
@@ -33,57 +41,444 @@ import java.net.URLEncoder;
  * @author: Guo Weifeng
  * @version: 1.0
  * @create: 2019/10/24 10:49
+ *
+ * Hex/Base64为查表实现：
+ *  1. 提供写入调用方byte[]/char[]/ByteBuffer（带offset/length）的版本，不产生中间数组
+ *  2. 提供OutputStream/InputStream包装，用于大数据流式编解码
+ *  3. Base64支持标准、URL安全（无填充）、MIME（每76字符换行）三种格式，解码兼容全部格式
+ * Base62为可逆编码：long提供不分配对象的定长版本，byte[]按大数转换，用于短ID生成
+ * Html/XML转义为单次扫描查表实现，无需转义时不复制，可直接写入Appendable
+ * URL编解码固定为UTF-8，无需编码时不复制，可追加到可复用的StringBuilder
  */
 public class Encodes {
 
     private static final String DEFAULT_URL_ENCODING = "UTF-8";
     private static final char[] BASE62 = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
 
+    /**
+     * long（按无符号处理）的Base62定长编码宽度，62^11 > 2^64
+     * */
+    public static final int BASE62_LONG_WIDTH = 11;
+
+    /**
+     * byte[]大数编解码时每轮处理5位Base62数字，62^5 < 2^31
+     * */
+    private static final long BASE62_POW5 = 62L * 62 * 62 * 62 * 62;
+    private static final long BASE62_MAX_DIV = Long.divideUnsigned(-1L, 62);
+    private static final long BASE62_MAX_REM = Long.remainderUnsigned(-1L, 62);
+
+    private static final char[] HEX_CHARS = "0123456789abcdef".toCharArray();
+    private static final char[] HEX_UPPER_CHARS = "0123456789ABCDEF".toCharArray();
+    private static final byte[] HEX_BYTES = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private static final char[] BASE64_CHARS =
+        "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+    private static final char[] BASE64_URL_SAFE_CHARS =
+        "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+    private static final byte[] BASE64_BYTES = new String(BASE64_CHARS).getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] BASE64_URL_SAFE_BYTES =
+        new String(BASE64_URL_SAFE_CHARS).getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * MIME格式每行字符数（RFC 2045）
+     * */
+    private static final int MIME_LINE_LENGTH = 76;
+
+    /**
+     * 解码表：ASCII字符 -> 数值，非法字符为-1，Base64的填充符'='为-2
+     * Base64解码表同时兼容标准与URL安全两种字母表
+     * */
+    private static final byte[] HEX_VALUES = new byte[128];
+    private static final byte[] BASE64_VALUES = new byte[128];
+    private static final int BASE64_PAD = -2;
+    private static final byte[] BASE62_VALUES = new byte[128];
+
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
+    /**
+     * 转义表：字符 -> 转义结果，null为无需转义，""为删除该字符
+     * HTML与commons-text的escapeHtml4一致（基础实体、ISO-8859-1实体、HTML 4.0扩展实体）
+     * XML与escapeXml10一致（基础实体与&apos;，删除非法控制字符，0x7f-0x9f转为数字实体，另删除非配对代理字符）
+     * */
+    private static final String[] HTML_ESCAPES = buildHtmlEscapes();
+    private static final String[] XML_ESCAPES = buildXmlEscapes();
+
+    /**
+     * URL编码模式，URL_SAFE中按位标记ASCII字符在各模式下是否无需编码
+     *  FORM：application/x-www-form-urlencoded，与URLEncoder一致，空格编码为'+'
+     *  PATH_SEGMENT：RFC 3986路径段，保留unreserved、sub-delims及':'、'@'
+     *  QUERY_PARAM：RFC 3986查询参数名或值，在路径段基础上去掉'&'、'='、'+'，增加'/'、'?'
+     *  RFC5987：Content-Disposition中filename*的attr-char
+     * */
+    private static final int URL_FORM = 1;
+    private static final int URL_PATH_SEGMENT = 1 << 1;
+    private static final int URL_QUERY_PARAM = 1 << 2;
+    private static final int URL_RFC5987 = 1 << 3;
+    private static final byte[] URL_SAFE = buildUrlSafe();
+
+    static {
+        Arrays.fill(HEX_VALUES, (byte) -1);
+        for (int i = 0; i < 10; i++) {
+            HEX_VALUES['0' + i] = (byte) i;
+        }
+        for (int i = 0; i < 6; i++) {
+            HEX_VALUES['a' + i] = (byte) (10 + i);
+            HEX_VALUES['A' + i] = (byte) (10 + i);
+        }
+
+        Arrays.fill(BASE64_VALUES, (byte) -1);
+        for (int i = 0; i < 64; i++) {
+            BASE64_VALUES[BASE64_CHARS[i]] = (byte) i;
+            BASE64_VALUES[BASE64_URL_SAFE_CHARS[i]] = (byte) i;
+        }
+        BASE64_VALUES['='] = BASE64_PAD;
+
+        Arrays.fill(BASE62_VALUES, (byte) -1);
+        for (int i = 0; i < BASE62.length; i++) {
+            BASE62_VALUES[BASE62[i]] = (byte) i;
+        }
+    }
+
 
     /**
      * Hex编码
      * */
     public static String encodeHex(byte[] input) {
-        return new String(Hex.encodeHex(input));
+        char[] chars = new char[input.length << 1];
+        encodeHex(input, 0, input.length, chars, 0);
+        return new String(chars);
+    }
+
+    /**
+     * Hex编码，写入调用方提供的char[]，返回写入的字符数（len * 2）
+     * */
+    public static int encodeHex(byte[] src, int srcOff, int len, char[] dst, int dstOff) {
+        checkRange(src.length, srcOff, len);
+        checkRange(dst.length, dstOff, len << 1);
+
+        int p = dstOff;
+        for (int i = srcOff, end = srcOff + len; i < end; i++) {
+            int b = src[i] & 0xFF;
+            dst[p++] = HEX_CHARS[b >>> 4];
+            dst[p++] = HEX_CHARS[b & 0x0F];
+        }
+        return len << 1;
+    }
+
+    /**
+     * Hex编码，以ASCII字节写入调用方提供的byte[]，返回写入的字节数（len * 2）
+     * */
+    public static int encodeHex(byte[] src, int srcOff, int len, byte[] dst, int dstOff) {
+        checkRange(src.length, srcOff, len);
+        checkRange(dst.length, dstOff, len << 1);
+
+        int p = dstOff;
+        for (int i = srcOff, end = srcOff + len; i < end; i++) {
+            int b = src[i] & 0xFF;
+            dst[p++] = HEX_BYTES[b >>> 4];
+            dst[p++] = HEX_BYTES[b & 0x0F];
+        }
+        return len << 1;
     }
 
     /**
-     * Hex解码
+     * Hex编码，消费src剩余的全部字节并写入dst，两者的position随之前移
+     * */
+    public static int encodeHex(ByteBuffer src, ByteBuffer dst) {
+        int len = src.remaining();
+        if (dst.remaining() < len << 1) {
+            throw new BufferOverflowException();
+        }
+
+        if (src.hasArray() && dst.hasArray()) {
+            int written = encodeHex(src.array(), src.arrayOffset() + src.position(), len,
+                dst.array(), dst.arrayOffset() + dst.position());
+            src.position(src.limit());
+            dst.position(dst.position() + written);
+            return written;
+        }
+
+        while (src.hasRemaining()) {
+            int b = src.get() & 0xFF;
+            dst.put(HEX_BYTES[b >>> 4]);
+            dst.put(HEX_BYTES[b & 0x0F]);
+        }
+        return len << 1;
+    }
+
+    /**
+     * Hex解码，非法输入返回null
      * */
     public static byte[] decodeHex(String input) {
         try {
-            return Hex.decodeHex(input);
-        } catch (DecoderException e) {
-            e.printStackTrace();
+            byte[] bytes = new byte[input.length() >> 1];
+            decodeHex(input, 0, input.length(), bytes, 0);
+            return bytes;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Hex解码，写入调用方提供的byte[]，返回写入的字节数（len / 2）
+     * 长度为奇数或包含非Hex字符时抛出IllegalArgumentException
+     * */
+    public static int decodeHex(CharSequence src, int srcOff, int len, byte[] dst, int dstOff) {
+        checkRange(src.length(), srcOff, len);
+        if ((len & 1) != 0) {
+            throw new IllegalArgumentException("Odd number of characters: " + len);
+        }
+        checkRange(dst.length, dstOff, len >> 1);
+
+        int p = dstOff;
+        for (int i = srcOff, end = srcOff + len; i < end; i += 2) {
+            dst[p++] = (byte) (hexValue(src.charAt(i), i) << 4 | hexValue(src.charAt(i + 1), i + 1));
+        }
+        return len >> 1;
+    }
+
+    /**
+     * Hex解码，src为ASCII字节
+     * */
+    public static int decodeHex(byte[] src, int srcOff, int len, byte[] dst, int dstOff) {
+        checkRange(src.length, srcOff, len);
+        if ((len & 1) != 0) {
+            throw new IllegalArgumentException("Odd number of characters: " + len);
         }
-        return null;
+        checkRange(dst.length, dstOff, len >> 1);
+
+        int p = dstOff;
+        for (int i = srcOff, end = srcOff + len; i < end; i += 2) {
+            dst[p++] = (byte) (hexValue((char) (src[i] & 0xFF), i) << 4 | hexValue((char) (src[i + 1] & 0xFF), i + 1));
+        }
+        return len >> 1;
     }
 
     /**
      * Base64
      * */
     public static String encodeBase64(byte[] input) {
-        return new String(Base64.encodeBase64(input));
+        char[] chars = new char[base64Length(input.length, true, 0)];
+        encodeBase64(input, 0, input.length, chars, 0, BASE64_CHARS, true, 0);
+        return new String(chars);
     }
 
+    /**
+     * 字符串以UTF-8编码后做Base64，纯ASCII字符串直接按字符编码，不产生中间byte[]
+     * */
     public static String encodeBase64(String input) {
         if (StringUtils.isEmpty(input)) {
             return input;
         }
 
-        try {
-            return new String(Base64.encodeBase64(input.getBytes(DEFAULT_URL_ENCODING)));
-        } catch (UnsupportedEncodingException e) {
-            return "";
+        int len = input.length();
+        for (int i = 0; i < len; i++) {
+            if (input.charAt(i) >= 0x80) {
+                return encodeBase64(input.getBytes(StandardCharsets.UTF_8));
+            }
         }
+
+        char[] chars = new char[base64Length(len, true, 0)];
+        int p = 0;
+        int i = 0;
+        for (int fullEnd = len - len % 3; i < fullEnd; i += 3) {
+            p = putBase64Quantum(input.charAt(i) << 16 | input.charAt(i + 1) << 8 | input.charAt(i + 2),
+                chars, p, BASE64_CHARS);
+        }
+        if (i < len) {
+            putBase64Tail(input.charAt(i), len - i == 2 ? input.charAt(i + 1) : 0, len - i, chars, p, BASE64_CHARS, true);
+        }
+        return new String(chars);
     }
 
+    /**
+     * Base64编码，写入调用方提供的char[]，返回写入的字符数
+     * */
+    public static int encodeBase64(byte[] src, int srcOff, int len, char[] dst, int dstOff) {
+        return encodeBase64(src, srcOff, len, dst, dstOff, BASE64_CHARS, true, 0);
+    }
+
+    /**
+     * Base64编码，以ASCII字节写入调用方提供的byte[]，返回写入的字节数
+     * */
+    public static int encodeBase64(byte[] src, int srcOff, int len, byte[] dst, int dstOff) {
+        return encodeBase64(src, srcOff, len, dst, dstOff, BASE64_BYTES, true, 0);
+    }
+
+    /**
+     * Base64编码，消费src剩余的全部字节并写入dst，两者的position随之前移
+     * */
+    public static int encodeBase64(ByteBuffer src, ByteBuffer dst) {
+        return encodeBase64(src, dst, BASE64_BYTES, true, 0);
+    }
+
+    /**
+     * URL安全的Base64（'-'、'_'替换'+'、'/'，无填充）
+     * */
     public static byte[] encodeUrlSafeBase64(byte[] input) {
-        return Base64.encodeBase64URLSafe(input);
+        byte[] bytes = new byte[base64Length(input.length, false, 0)];
+        encodeBase64(input, 0, input.length, bytes, 0, BASE64_URL_SAFE_BYTES, false, 0);
+        return bytes;
+    }
+
+    public static String encodeUrlSafeBase64String(byte[] input) {
+        char[] chars = new char[base64Length(input.length, false, 0)];
+        encodeBase64(input, 0, input.length, chars, 0, BASE64_URL_SAFE_CHARS, false, 0);
+        return new String(chars);
+    }
+
+    public static int encodeUrlSafeBase64(byte[] src, int srcOff, int len, char[] dst, int dstOff) {
+        return encodeBase64(src, srcOff, len, dst, dstOff, BASE64_URL_SAFE_CHARS, false, 0);
+    }
+
+    public static int encodeUrlSafeBase64(byte[] src, int srcOff, int len, byte[] dst, int dstOff) {
+        return encodeBase64(src, srcOff, len, dst, dstOff, BASE64_URL_SAFE_BYTES, false, 0);
+    }
+
+    public static int encodeUrlSafeBase64(ByteBuffer src, ByteBuffer dst) {
+        return encodeBase64(src, dst, BASE64_URL_SAFE_BYTES, false, 0);
+    }
+
+    /**
+     * MIME格式的Base64，每76个字符以"\r\n"换行，末尾不换行
+     * */
+    public static String encodeMimeBase64(byte[] input) {
+        char[] chars = new char[base64Length(input.length, true, MIME_LINE_LENGTH)];
+        encodeBase64(input, 0, input.length, chars, 0, BASE64_CHARS, true, MIME_LINE_LENGTH);
+        return new String(chars);
+    }
+
+    public static int encodeMimeBase64(byte[] src, int srcOff, int len, char[] dst, int dstOff) {
+        return encodeBase64(src, srcOff, len, dst, dstOff, BASE64_CHARS, true, MIME_LINE_LENGTH);
+    }
+
+    public static int encodeMimeBase64(byte[] src, int srcOff, int len, byte[] dst, int dstOff) {
+        return encodeBase64(src, srcOff, len, dst, dstOff, BASE64_BYTES, true, MIME_LINE_LENGTH);
     }
 
+    public static int encodeMimeBase64(ByteBuffer src, ByteBuffer dst) {
+        return encodeBase64(src, dst, BASE64_BYTES, true, MIME_LINE_LENGTH);
+    }
+
+    /**
+     * 编码后的长度，用于预先分配目标数组
+     * */
+    public static int base64Length(int len) {
+        return base64Length(len, true, 0);
+    }
+
+    public static int urlSafeBase64Length(int len) {
+        return base64Length(len, false, 0);
+    }
+
+    public static int mimeBase64Length(int len) {
+        return base64Length(len, true, MIME_LINE_LENGTH);
+    }
+
+    /**
+     * Base64解码，兼容标准、URL安全与MIME格式：忽略换行等非Base64字符，遇到'='结束
+     * */
     public static byte[] decodeBase64(String input) {
-        return Base64.decodeBase64(input.getBytes());
+        byte[] bytes = new byte[maxBase64DecodedLength(input.length())];
+        int len = decodeBase64(input, 0, input.length(), bytes, 0);
+        return len == bytes.length ? bytes : Arrays.copyOf(bytes, len);
+    }
+
+    /**
+     * Base64解码，写入调用方提供的byte[]，返回写入的字节数
+     * dst剩余空间至少为 len * 3 / 4
+     * */
+    public static int decodeBase64(CharSequence src, int srcOff, int len, byte[] dst, int dstOff) {
+        checkRange(src.length(), srcOff, len);
+
+        int bits = 0;
+        int count = 0;
+        int p = dstOff;
+        for (int i = srcOff, end = srcOff + len; i < end; i++) {
+            char c = src.charAt(i);
+            int value = c < 128 ? BASE64_VALUES[c] : -1;
+            if (value >= 0) {
+                bits = bits << 6 | value;
+                if (++count == 4) {
+                    dst[p++] = (byte) (bits >> 16);
+                    dst[p++] = (byte) (bits >> 8);
+                    dst[p++] = (byte) bits;
+                    count = 0;
+                }
+            } else if (value == BASE64_PAD) {
+                break;
+            }
+        }
+        return putDecodedTail(bits, count, dst, p) - dstOff;
+    }
+
+    /**
+     * Base64解码，src为ASCII字节
+     * */
+    public static int decodeBase64(byte[] src, int srcOff, int len, byte[] dst, int dstOff) {
+        checkRange(src.length, srcOff, len);
+
+        int bits = 0;
+        int count = 0;
+        int p = dstOff;
+        for (int i = srcOff, end = srcOff + len; i < end; i++) {
+            int value = src[i] >= 0 ? BASE64_VALUES[src[i]] : -1;
+            if (value >= 0) {
+                bits = bits << 6 | value;
+                if (++count == 4) {
+                    dst[p++] = (byte) (bits >> 16);
+                    dst[p++] = (byte) (bits >> 8);
+                    dst[p++] = (byte) bits;
+                    count = 0;
+                }
+            } else if (value == BASE64_PAD) {
+                break;
+            }
+        }
+        return putDecodedTail(bits, count, dst, p) - dstOff;
+    }
+
+    /**
+     * Base64解码，消费src剩余的全部字节并写入dst，两者的position随之前移
+     * */
+    public static int decodeBase64(ByteBuffer src, ByteBuffer dst) {
+        if (src.hasArray() && dst.hasArray()) {
+            if (dst.remaining() < maxBase64DecodedLength(src.remaining())) {
+                throw new BufferOverflowException();
+            }
+            int written = decodeBase64(src.array(), src.arrayOffset() + src.position(), src.remaining(),
+                dst.array(), dst.arrayOffset() + dst.position());
+            src.position(src.limit());
+            dst.position(dst.position() + written);
+            return written;
+        }
+
+        int start = dst.position();
+        int bits = 0;
+        int count = 0;
+        while (src.hasRemaining()) {
+            byte b = src.get();
+            int value = b >= 0 ? BASE64_VALUES[b] : -1;
+            if (value >= 0) {
+                bits = bits << 6 | value;
+                if (++count == 4) {
+                    dst.put((byte) (bits >> 16));
+                    dst.put((byte) (bits >> 8));
+                    dst.put((byte) bits);
+                    count = 0;
+                }
+            } else if (value == BASE64_PAD) {
+                src.position(src.limit());
+                break;
+            }
+        }
+        if (count == 2) {
+            dst.put((byte) (bits >> 4));
+        } else if (count == 3) {
+            dst.put((byte) (bits >> 10));
+            dst.put((byte) (bits >> 2));
+        }
+        return dst.position() - start;
     }
 
     public static String decodeBase64String(String input) {
@@ -91,13 +486,37 @@ public class Encodes {
             return input;
         }
 
-        try {
-            return new String(Base64.decodeBase64(input.getBytes(DEFAULT_URL_ENCODING)));
-        } catch (UnsupportedEncodingException e) {
-            return "";
-        }
+        return new String(decodeBase64(input), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 流式Base64编码，写入out的是编码后的ASCII字节，close时补齐填充并关闭out
+     * */
+    public static OutputStream wrapBase64(OutputStream out) {
+        return new Base64OutputStream(out, BASE64_BYTES, true, 0);
+    }
+
+    public static OutputStream wrapUrlSafeBase64(OutputStream out) {
+        return new Base64OutputStream(out, BASE64_URL_SAFE_BYTES, false, 0);
     }
 
+    public static OutputStream wrapMimeBase64(OutputStream out) {
+        return new Base64OutputStream(out, BASE64_BYTES, true, MIME_LINE_LENGTH);
+    }
+
+    /**
+     * 流式Base64解码，兼容标准、URL安全与MIME格式
+     * */
+    public static InputStream wrapBase64(InputStream in) {
+        return new Base64InputStream(in);
+    }
+
+    /**
+     * 逐字节对62取模，结果有损且无法解码，仅为兼容保留
+     *
+     * @deprecated 请使用 {@link #encodeBase62Bytes(byte[])}
+     * */
+    @Deprecated
     public static String encodeBase62(byte[] input) {
         char[] chars = new char[input.length];
         for (int i = 0; i < input.length; i++) {
@@ -107,10 +526,196 @@ public class Encodes {
     }
 
     /**
-     * Html转码
+     * Base62编码long（按无符号处理），结果为去掉前导'0'的最短形式，0编码为"0"
+     * */
+    public static String encodeBase62(long value) {
+        char[] chars = new char[BASE62_LONG_WIDTH];
+        encodeBase62(value, chars, 0);
+
+        int start = 0;
+        while (start < BASE62_LONG_WIDTH - 1 && chars[start] == '0') {
+            start++;
+        }
+        return new String(chars, start, BASE62_LONG_WIDTH - start);
+    }
+
+    /**
+     * Base62定长编码long（按无符号处理），固定写入11个字符（左侧补'0'），不分配任何对象
+     * 定长结果的字典序与数值的无符号大小顺序一致
+     * */
+    public static int encodeBase62(long value, char[] dst, int dstOff) {
+        checkRange(dst.length, dstOff, BASE62_LONG_WIDTH);
+
+        int p = dstOff + BASE62_LONG_WIDTH;
+        if (value < 0) {
+            // 无符号除以62：先右移一位再除以31
+            long quotient = (value >>> 1) / 31;
+            dst[--p] = BASE62[(int) (value - quotient * 62)];
+            value = quotient;
+        }
+        while (p > dstOff) {
+            dst[--p] = BASE62[(int) (value % 62)];
+            value /= 62;
+        }
+        return BASE62_LONG_WIDTH;
+    }
+
+    public static int encodeBase62(long value, byte[] dst, int dstOff) {
+        checkRange(dst.length, dstOff, BASE62_LONG_WIDTH);
+
+        int p = dstOff + BASE62_LONG_WIDTH;
+        if (value < 0) {
+            long quotient = (value >>> 1) / 31;
+            dst[--p] = (byte) BASE62[(int) (value - quotient * 62)];
+            value = quotient;
+        }
+        while (p > dstOff) {
+            dst[--p] = (byte) BASE62[(int) (value % 62)];
+            value /= 62;
+        }
+        return BASE62_LONG_WIDTH;
+    }
+
+    /**
+     * Base62解码为long，兼容最短形式与定长形式，非法字符或超出64位时抛出IllegalArgumentException
+     * */
+    public static long decodeBase62ToLong(CharSequence input) {
+        return decodeBase62ToLong(input, 0, input.length());
+    }
+
+    public static long decodeBase62ToLong(CharSequence src, int srcOff, int len) {
+        checkRange(src.length(), srcOff, len);
+        if (len == 0 || len > BASE62_LONG_WIDTH) {
+            throw new IllegalArgumentException("Illegal base62 length: " + len);
+        }
+
+        long value = 0;
+        for (int i = srcOff, end = srcOff + len; i < end; i++) {
+            int digit = base62Value(src.charAt(i), i);
+            if (Long.compareUnsigned(value, BASE62_MAX_DIV) > 0 || (value == BASE62_MAX_DIV && digit > BASE62_MAX_REM)) {
+                throw new IllegalArgumentException("Base62 value out of range: " + src.subSequence(srcOff, srcOff + len));
+            }
+            value = value * 62 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Base62编码byte[]：按大端无符号大数转换，每个前导0字节编码为一个'0'，可由decodeBase62Bytes还原
+     * */
+    public static String encodeBase62Bytes(byte[] input) {
+        int zeros = 0;
+        while (zeros < input.length && input[zeros] == 0) {
+            zeros++;
+        }
+
+        byte[] number = Arrays.copyOfRange(input, zeros, input.length);
+        // log(256) / log(62) ≈ 1.3436，每轮输出5位，多留一轮的余量
+        char[] chars = new char[zeros + (int) ((long) number.length * 13436 / 10000) + 6];
+        int p = chars.length;
+        int start = 0;
+        while (start < number.length) {
+            // 整个大数除以62^5，余数即低5位数字
+            long remainder = 0;
+            for (int i = start; i < number.length; i++) {
+                long acc = remainder << 8 | (number[i] & 0xFF);
+                number[i] = (byte) (acc / BASE62_POW5);
+                remainder = acc % BASE62_POW5;
+            }
+            while (start < number.length && number[start] == 0) {
+                start++;
+            }
+            for (int k = 0; k < 5; k++) {
+                chars[--p] = BASE62[(int) (remainder % 62)];
+                remainder /= 62;
+            }
+        }
+
+        // 去掉最后一轮补出的'0'，再补上前导0字节
+        while (p < chars.length && chars[p] == '0') {
+            p++;
+        }
+        for (int i = 0; i < zeros; i++) {
+            chars[--p] = '0';
+        }
+        return new String(chars, p, chars.length - p);
+    }
+
+    /**
+     * Base62解码为byte[]，encodeBase62Bytes的逆运算，非法字符抛出IllegalArgumentException
+     * */
+    public static byte[] decodeBase62Bytes(CharSequence input) {
+        int len = input.length();
+        int zeros = 0;
+        while (zeros < len && input.charAt(zeros) == '0') {
+            zeros++;
+        }
+
+        // log(62) / log(256) ≈ 0.7443
+        byte[] number = new byte[(int) ((long) (len - zeros) * 7443 / 10000) + 2];
+        int start = number.length;
+        for (int i = zeros; i < len; i += 5) {
+            int n = Math.min(5, len - i);
+            long multiplier = 1;
+            long carry = 0;
+            for (int k = i; k < i + n; k++) {
+                carry = carry * 62 + base62Value(input.charAt(k), k);
+                multiplier *= 62;
+            }
+            // number = number * 62^n + chunk
+            for (int j = number.length - 1; j >= start; j--) {
+                long acc = (number[j] & 0xFF) * multiplier + carry;
+                number[j] = (byte) acc;
+                carry = acc >>> 8;
+            }
+            while (carry != 0) {
+                number[--start] = (byte) carry;
+                carry >>>= 8;
+            }
+        }
+
+        byte[] bytes = new byte[zeros + number.length - start];
+        System.arraycopy(number, start, bytes, zeros, number.length - start);
+        return bytes;
+    }
+
+    /**
+     * Html转码，无需转义时直接返回原字符串
      * */
     public static String escapeHtml(String html) {
-        return StringEscapeUtils.escapeHtml4(html);
+        if (html == null) {
+            return null;
+        }
+
+        int first = indexOfEscape(html, HTML_ESCAPES);
+        if (first < 0) {
+            return html;
+        }
+        StringBuilder sb = new StringBuilder(html.length() + 16);
+        try {
+            escapeHtml(html, first, sb);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Html转码，直接写入out（Writer、StringBuilder等），无需转义时整体写入一次
+     * */
+    public static void escapeHtml(CharSequence html, Appendable out) throws IOException {
+        escapeHtml(html, 0, out);
+    }
+
+    /**
+     * 写入StringBuilder时不会抛出IOException
+     * */
+    public static void escapeHtml(CharSequence html, StringBuilder out) {
+        try {
+            escapeHtml(html, 0, out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     public static String unescapeHtml(String htmlEscape) {
@@ -118,10 +723,39 @@ public class Encodes {
     }
 
     /**
-     * XML
+     * XML，无需转义时直接返回原字符串
      * */
     public static String escapeXML(String xml) {
-        return StringEscapeUtils.escapeXml10(xml);
+        if (xml == null) {
+            return null;
+        }
+
+        int first = indexOfXmlEscape(xml, 0);
+        if (first < 0) {
+            return xml;
+        }
+        StringBuilder sb = new StringBuilder(xml.length() + 16);
+        try {
+            escapeXml(xml, first, sb);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * XML转码，直接写入out（Writer、StringBuilder等）
+     * */
+    public static void escapeXml(CharSequence xml, Appendable out) throws IOException {
+        escapeXml(xml, 0, out);
+    }
+
+    public static void escapeXml(CharSequence xml, StringBuilder out) {
+        try {
+            escapeXml(xml, 0, out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     public static String unEscapeXML(String escapeXml) {
@@ -129,21 +763,799 @@ public class Encodes {
     }
 
     /**
-     * URL编码，Encode默认为UTF-8
+     * URL编码（application/x-www-form-urlencoded），固定为UTF-8，结果与URLEncoder一致
+     * 无需编码时直接返回原字符串
      * */
     public static String urlEncode(String part) {
-        try {
-            return URLEncoder.encode(part, DEFAULT_URL_ENCODING);
-        } catch (UnsupportedEncodingException e) {
-            return "";
-        }
+        return urlEncode(part, URL_FORM);
+    }
+
+    /**
+     * URL编码，追加到可复用的StringBuilder
+     * */
+    public static void urlEncode(CharSequence part, StringBuilder out) {
+        urlEncode(part, 0, URL_FORM, out);
+    }
+
+    /**
+     * RFC 3986路径段编码，空格编码为"%20"，'/'会被编码
+     * */
+    public static String urlEncodePathSegment(String segment) {
+        return urlEncode(segment, URL_PATH_SEGMENT);
+    }
+
+    public static void urlEncodePathSegment(CharSequence segment, StringBuilder out) {
+        urlEncode(segment, 0, URL_PATH_SEGMENT, out);
     }
 
+    /**
+     * RFC 3986查询参数名或值编码，空格编码为"%20"，'&'、'='、'+'、'#'会被编码
+     * */
+    public static String urlEncodeQueryParam(String param) {
+        return urlEncode(param, URL_QUERY_PARAM);
+    }
+
+    public static void urlEncodeQueryParam(CharSequence param, StringBuilder out) {
+        urlEncode(param, 0, URL_QUERY_PARAM, out);
+    }
+
+    /**
+     * URL解码（application/x-www-form-urlencoded），固定为UTF-8，结果与URLDecoder一致
+     * 不含'%'与'+'时直接返回原字符串
+     * */
     public static String urlDecode(String part) {
-        try {
-            return URLDecoder.decode(part, DEFAULT_URL_ENCODING);
-        } catch (UnsupportedEncodingException e) {
-            return "";
+        int first = indexOfUrlEscape(part);
+        if (first < 0) {
+            return part;
+        }
+        StringBuilder sb = new StringBuilder(part.length());
+        urlDecode(part, first, sb);
+        return sb.toString();
+    }
+
+    /**
+     * URL解码，追加到可复用的StringBuilder
+     * */
+    public static void urlDecode(CharSequence part, StringBuilder out) {
+        int first = indexOfUrlEscape(part);
+        if (first < 0) {
+            out.append(part);
+        } else {
+            urlDecode(part, first, out);
+        }
+    }
+
+    /**
+     * 生成Content-Disposition的文件名参数（RFC 6266 / RFC 5987）：
+     *  filename="百分号编码的文件名"; filename*=UTF-8''百分号编码的文件名
+     * 支持filename*的浏览器按UTF-8解码，旧浏览器使用filename
+     * */
+    public static String contentDispositionFileName(String fileName) {
+        StringBuilder encoded = new StringBuilder(fileName.length() * 3);
+        urlEncode(fileName, 0, URL_RFC5987, encoded);
+
+        StringBuilder sb = new StringBuilder(encoded.length() * 2 + 30);
+        sb.append("filename=\"").append(encoded).append("\"; filename*=UTF-8''").append(encoded);
+        return sb.toString();
+    }
+
+    /**
+     * Base64编码核心，lineLength大于0时每lineLength个字符插入"\r\n"（须为4的倍数）
+     * */
+    private static int encodeBase64(byte[] src, int srcOff, int len, char[] dst, int dstOff,
+                                    char[] alphabet, boolean pad, int lineLength) {
+        checkRange(src.length, srcOff, len);
+        checkRange(dst.length, dstOff, base64Length(len, pad, lineLength));
+
+        int p = dstOff;
+        int i = srcOff;
+        int lineChars = 0;
+        for (int fullEnd = srcOff + len - len % 3; i < fullEnd; i += 3) {
+            if (lineChars == lineLength && lineLength > 0) {
+                dst[p++] = '\r';
+                dst[p++] = '\n';
+                lineChars = 0;
+            }
+            p = putBase64Quantum((src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8 | (src[i + 2] & 0xFF),
+                dst, p, alphabet);
+            lineChars += 4;
+        }
+
+        int rest = srcOff + len - i;
+        if (rest > 0) {
+            if (lineChars == lineLength && lineLength > 0) {
+                dst[p++] = '\r';
+                dst[p++] = '\n';
+            }
+            p = putBase64Tail(src[i] & 0xFF, rest == 2 ? src[i + 1] & 0xFF : 0, rest, dst, p, alphabet, pad);
+        }
+        return p - dstOff;
+    }
+
+    private static int encodeBase64(byte[] src, int srcOff, int len, byte[] dst, int dstOff,
+                                    byte[] alphabet, boolean pad, int lineLength) {
+        checkRange(src.length, srcOff, len);
+        checkRange(dst.length, dstOff, base64Length(len, pad, lineLength));
+
+        int p = dstOff;
+        int i = srcOff;
+        int lineChars = 0;
+        for (int fullEnd = srcOff + len - len % 3; i < fullEnd; i += 3) {
+            if (lineChars == lineLength && lineLength > 0) {
+                dst[p++] = '\r';
+                dst[p++] = '\n';
+                lineChars = 0;
+            }
+            int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8 | (src[i + 2] & 0xFF);
+            dst[p++] = alphabet[bits >>> 18];
+            dst[p++] = alphabet[bits >>> 12 & 0x3F];
+            dst[p++] = alphabet[bits >>> 6 & 0x3F];
+            dst[p++] = alphabet[bits & 0x3F];
+            lineChars += 4;
+        }
+
+        int rest = srcOff + len - i;
+        if (rest > 0) {
+            if (lineChars == lineLength && lineLength > 0) {
+                dst[p++] = '\r';
+                dst[p++] = '\n';
+            }
+            int b0 = src[i] & 0xFF;
+            dst[p++] = alphabet[b0 >>> 2];
+            if (rest == 1) {
+                dst[p++] = alphabet[b0 << 4 & 0x3F];
+                if (pad) {
+                    dst[p++] = '=';
+                    dst[p++] = '=';
+                }
+            } else {
+                int b1 = src[i + 1] & 0xFF;
+                dst[p++] = alphabet[(b0 << 4 | b1 >>> 4) & 0x3F];
+                dst[p++] = alphabet[b1 << 2 & 0x3F];
+                if (pad) {
+                    dst[p++] = '=';
+                }
+            }
+        }
+        return p - dstOff;
+    }
+
+    private static int encodeBase64(ByteBuffer src, ByteBuffer dst, byte[] alphabet, boolean pad, int lineLength) {
+        int len = src.remaining();
+        int encodedLength = base64Length(len, pad, lineLength);
+        if (dst.remaining() < encodedLength) {
+            throw new BufferOverflowException();
+        }
+
+        if (src.hasArray() && dst.hasArray()) {
+            encodeBase64(src.array(), src.arrayOffset() + src.position(), len,
+                dst.array(), dst.arrayOffset() + dst.position(), alphabet, pad, lineLength);
+        } else {
+            // 非堆内存时以小块中转，避免整体拷贝；块大小取整行（MIME）或3的整数倍，块内不会出现填充
+            int bytesPerLine = lineLength > 0 ? lineLength / 4 * 3 : 3;
+            byte[] in = new byte[Math.min(len, STREAM_BUFFER_SIZE / 4 * 3 / bytesPerLine * bytesPerLine)];
+            byte[] out = new byte[base64Length(in.length, pad, lineLength)];
+            ByteBuffer source = src.duplicate();
+            ByteBuffer target = dst.duplicate();
+            while (source.hasRemaining()) {
+                int n = Math.min(source.remaining(), in.length);
+                source.get(in, 0, n);
+                if (lineLength > 0 && target.position() != dst.position()) {
+                    // 上一块恰好以完整的一行结束
+                    target.put((byte) '\r').put((byte) '\n');
+                }
+                target.put(out, 0, encodeBase64(in, 0, n, out, 0, alphabet, pad, lineLength));
+            }
+        }
+        src.position(src.limit());
+        dst.position(dst.position() + encodedLength);
+        return encodedLength;
+    }
+
+    private static int putBase64Quantum(int bits, char[] dst, int p, char[] alphabet) {
+        dst[p] = alphabet[bits >>> 18];
+        dst[p + 1] = alphabet[bits >>> 12 & 0x3F];
+        dst[p + 2] = alphabet[bits >>> 6 & 0x3F];
+        dst[p + 3] = alphabet[bits & 0x3F];
+        return p + 4;
+    }
+
+    /**
+     * 写入末尾不足3字节的部分，rest为剩余字节数（0、1、2）
+     * */
+    private static int putBase64Tail(int b0, int b1, int rest, char[] dst, int p, char[] alphabet, boolean pad) {
+        if (rest == 0) {
+            return p;
+        }
+        dst[p++] = alphabet[b0 >>> 2];
+        if (rest == 1) {
+            dst[p++] = alphabet[b0 << 4 & 0x3F];
+            if (pad) {
+                dst[p++] = '=';
+                dst[p++] = '=';
+            }
+        } else {
+            dst[p++] = alphabet[(b0 << 4 | b1 >>> 4) & 0x3F];
+            dst[p++] = alphabet[b1 << 2 & 0x3F];
+            if (pad) {
+                dst[p++] = '=';
+            }
+        }
+        return p;
+    }
+
+    /**
+     * 解码末尾不足4个字符的部分，1个字符无法组成字节直接丢弃
+     * */
+    private static int putDecodedTail(int bits, int count, byte[] dst, int p) {
+        if (count == 2) {
+            dst[p++] = (byte) (bits >> 4);
+        } else if (count == 3) {
+            dst[p++] = (byte) (bits >> 10);
+            dst[p++] = (byte) (bits >> 2);
+        }
+        return p;
+    }
+
+    private static int base64Length(int len, boolean pad, int lineLength) {
+        int chars = pad ? (len + 2) / 3 * 4 : len / 3 * 4 + (len % 3 == 0 ? 0 : len % 3 + 1);
+        if (lineLength > 0 && chars > 0) {
+            chars += (chars - 1) / lineLength * 2;
+        }
+        return chars;
+    }
+
+    private static int maxBase64DecodedLength(int len) {
+        return (int) ((long) len * 3 / 4);
+    }
+
+    private static int hexValue(char c, int index) {
+        int value = c < 128 ? HEX_VALUES[c] : -1;
+        if (value < 0) {
+            throw new IllegalArgumentException("Illegal hexadecimal character " + c + " at index " + index);
+        }
+        return value;
+    }
+
+    /**
+     * 从from开始转义，from之前的部分原样写入
+     * */
+    private static void escapeHtml(CharSequence input, int from, Appendable out) throws IOException {
+        int len = input.length();
+        int last = 0;
+        for (int i = from; i < len; i++) {
+            char c = input.charAt(i);
+            if (c < HTML_ESCAPES.length && HTML_ESCAPES[c] != null) {
+                if (i > last) {
+                    out.append(input, last, i);
+                }
+                out.append(HTML_ESCAPES[c]);
+                last = i + 1;
+            }
+        }
+        if (last < len) {
+            out.append(input, last, len);
+        }
+    }
+
+    private static void escapeXml(CharSequence input, int from, Appendable out) throws IOException {
+        int len = input.length();
+        int last = 0;
+        for (int i = indexOfXmlEscape(input, from); i >= 0; i = indexOfXmlEscape(input, last)) {
+            if (i > last) {
+                out.append(input, last, i);
+            }
+            char c = input.charAt(i);
+            if (c < XML_ESCAPES.length) {
+                out.append(XML_ESCAPES[c]);
+            }
+            // 非配对代理字符及0xfffe、0xffff直接删除
+            last = i + 1;
+        }
+        if (last < len) {
+            out.append(input, last, len);
+        }
+    }
+
+    private static String urlEncode(String part, int mode) {
+        int len = part.length();
+        int first = 0;
+        while (first < len) {
+            char c = part.charAt(first);
+            if (c >= 128 || (URL_SAFE[c] & mode) == 0) {
+                break;
+            }
+            first++;
+        }
+        if (first == len) {
+            return part;
+        }
+
+        StringBuilder sb = new StringBuilder(len + 16);
+        sb.append(part, 0, first);
+        urlEncode(part, first, mode, sb);
+        return sb.toString();
+    }
+
+    /**
+     * 按UTF-8编码，无需编码的连续字符整段追加；非配对的代理字符按'?'编码，与URLEncoder一致
+     * */
+    private static void urlEncode(CharSequence part, int from, int mode, StringBuilder out) {
+        int len = part.length();
+        int last = from;
+        for (int i = from; i < len; i++) {
+            char c = part.charAt(i);
+            if (c < 128 && (URL_SAFE[c] & mode) != 0) {
+                continue;
+            }
+            if (i > last) {
+                out.append(part, last, i);
+            }
+
+            if (c < 128) {
+                if (c == ' ' && mode == URL_FORM) {
+                    out.append('+');
+                } else {
+                    appendUrlEscape(out, c);
+                }
+            } else if (c < 0x800) {
+                appendUrlEscape(out, 0xC0 | c >> 6);
+                appendUrlEscape(out, 0x80 | c & 0x3F);
+            } else if (!Character.isSurrogate(c)) {
+                appendUrlEscape(out, 0xE0 | c >> 12);
+                appendUrlEscape(out, 0x80 | c >> 6 & 0x3F);
+                appendUrlEscape(out, 0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(part.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, part.charAt(++i));
+                appendUrlEscape(out, 0xF0 | codePoint >> 18);
+                appendUrlEscape(out, 0x80 | codePoint >> 12 & 0x3F);
+                appendUrlEscape(out, 0x80 | codePoint >> 6 & 0x3F);
+                appendUrlEscape(out, 0x80 | codePoint & 0x3F);
+            } else {
+                appendUrlEscape(out, '?');
+            }
+            last = i + 1;
+        }
+        if (last < len) {
+            out.append(part, last, len);
+        }
+    }
+
+    private static void appendUrlEscape(StringBuilder out, int b) {
+        out.append('%').append(HEX_UPPER_CHARS[b >> 4 & 0x0F]).append(HEX_UPPER_CHARS[b & 0x0F]);
+    }
+
+    private static int indexOfUrlEscape(CharSequence part) {
+        for (int i = 0, len = part.length(); i < len; i++) {
+            char c = part.charAt(i);
+            if (c == '%' || c == '+') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 直接解码UTF-8字节序列；遇到非法的转义或UTF-8序列时回退到URLDecoder，保证结果与异常都与其一致
+     * */
+    private static void urlDecode(CharSequence part, int from, StringBuilder out) {
+        int start = out.length();
+        int len = part.length();
+        out.append(part, 0, from);
+
+        int i = from;
+        while (i < len) {
+            char c = part.charAt(i);
+            if (c == '+') {
+                out.append(' ');
+                i++;
+            } else if (c != '%') {
+                out.append(c);
+                i++;
+            } else {
+                int b0 = urlEscapeValue(part, i);
+                if (b0 < 0x80) {
+                    if (b0 < 0) {
+                        break;
+                    }
+                    out.append((char) b0);
+                    i += 3;
+                    continue;
+                }
+
+                int count = b0 >= 0xF0 ? 4 : b0 >= 0xE0 ? 3 : 2;
+                int codePoint = b0 & (0x3F >> (count - 1));
+                int k = 1;
+                for (; k < count; k++) {
+                    int b = urlEscapeValue(part, i + k * 3);
+                    if ((b & 0xC0) != 0x80) {
+                        break;
+                    }
+                    codePoint = codePoint << 6 | (b & 0x3F);
+                }
+                if (k < count || b0 < 0xC2 || b0 > 0xF4 || !isValidUtf8(codePoint, count)) {
+                    break;
+                }
+                out.appendCodePoint(codePoint);
+                i += count * 3;
+            }
+        }
+
+        if (i < len) {
+            out.setLength(start);
+            try {
+                out.append(URLDecoder.decode(part.toString(), DEFAULT_URL_ENCODING));
+            } catch (UnsupportedEncodingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * 解析i处的"%XX"，格式不合法时返回-1
+     * */
+    private static int urlEscapeValue(CharSequence part, int i) {
+        if (i + 2 >= part.length() || part.charAt(i) != '%') {
+            return -1;
+        }
+        char h = part.charAt(i + 1);
+        char l = part.charAt(i + 2);
+        int high = h < 128 ? HEX_VALUES[h] : -1;
+        int low = l < 128 ? HEX_VALUES[l] : -1;
+        return high < 0 || low < 0 ? -1 : high << 4 | low;
+    }
+
+    private static boolean isValidUtf8(int codePoint, int count) {
+        if (count == 3) {
+            return codePoint >= 0x800 && !Character.isSurrogate((char) codePoint);
+        }
+        if (count == 4) {
+            return codePoint >= 0x10000 && codePoint <= Character.MAX_CODE_POINT;
+        }
+        return true;
+    }
+
+    private static byte[] buildUrlSafe() {
+        byte[] safe = new byte[128];
+        for (char c = 'a'; c <= 'z'; c++) {
+            safe[c] = URL_FORM | URL_PATH_SEGMENT | URL_QUERY_PARAM | URL_RFC5987;
+            safe[c - 'a' + 'A'] = URL_FORM | URL_PATH_SEGMENT | URL_QUERY_PARAM | URL_RFC5987;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            safe[c] = URL_FORM | URL_PATH_SEGMENT | URL_QUERY_PARAM | URL_RFC5987;
+        }
+        for (char c : "-._*".toCharArray()) {
+            safe[c] |= URL_FORM;
+        }
+        for (char c : "-._~!$&'()*+,;=:@".toCharArray()) {
+            safe[c] |= URL_PATH_SEGMENT;
+        }
+        for (char c : "-._~!$'()*,;:@/?".toCharArray()) {
+            safe[c] |= URL_QUERY_PARAM;
+        }
+        for (char c : "!#$&+-.^_`|~".toCharArray()) {
+            safe[c] |= URL_RFC5987;
+        }
+        return safe;
+    }
+
+    private static int indexOfEscape(CharSequence input, String[] escapes) {
+        for (int i = 0, len = input.length(); i < len; i++) {
+            char c = input.charAt(i);
+            if (c < escapes.length && escapes[c] != null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 查找下一个需要转义或删除的字符，配对的代理字符原样保留
+     * */
+    private static int indexOfXmlEscape(CharSequence input, int from) {
+        for (int i = from, len = input.length(); i < len; i++) {
+            char c = input.charAt(i);
+            if (c < XML_ESCAPES.length) {
+                if (XML_ESCAPES[c] != null) {
+                    return i;
+                }
+            } else if (Character.isHighSurrogate(c)) {
+                if (i + 1 < len && Character.isLowSurrogate(input.charAt(i + 1))) {
+                    i++;
+                } else {
+                    return i;
+                }
+            } else if (Character.isLowSurrogate(c) || c >= 0xFFFE) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String[] buildHtmlEscapes() {
+        List<Map<CharSequence, CharSequence>> maps = Arrays.asList(EntityArrays.BASIC_ESCAPE,
+            EntityArrays.ISO8859_1_ESCAPE, EntityArrays.HTML40_EXTENDED_ESCAPE);
+
+        int max = 0;
+        for (Map<CharSequence, CharSequence> map : maps) {
+            for (CharSequence key : map.keySet()) {
+                max = Math.max(max, key.charAt(0));
+            }
+        }
+
+        String[] escapes = new String[max + 1];
+        for (Map<CharSequence, CharSequence> map : maps) {
+            for (Map.Entry<CharSequence, CharSequence> entry : map.entrySet()) {
+                escapes[entry.getKey().charAt(0)] = entry.getValue().toString();
+            }
+        }
+        return escapes;
+    }
+
+    private static String[] buildXmlEscapes() {
+        String[] escapes = new String[0xA0];
+        for (int c = 0; c < 0x20; c++) {
+            if (c != '\t' && c != '\n' && c != '\r') {
+                escapes[c] = "";
+            }
+        }
+        for (int c = 0x7F; c < 0xA0; c++) {
+            if (c != 0x85) {
+                escapes[c] = "&#" + c + ";";
+            }
+        }
+        escapes['&'] = "&amp;";
+        escapes['<'] = "&lt;";
+        escapes['>'] = "&gt;";
+        escapes['"'] = "&quot;";
+        escapes['\''] = "&apos;";
+        return escapes;
+    }
+
+    private static int base62Value(char c, int index) {
+        int value = c < 128 ? BASE62_VALUES[c] : -1;
+        if (value < 0) {
+            throw new IllegalArgumentException("Illegal base62 character " + c + " at index " + index);
+        }
+        return value;
+    }
+
+    private static void checkRange(int length, int off, int len) {
+        if (off < 0 || len < 0 || off > length - len) {
+            throw new IndexOutOfBoundsException("off: " + off + ", len: " + len + ", length: " + length);
+        }
+    }
+
+    /**
+     * 流式Base64编码：按3字节一组编码到内部缓冲区，缓冲区满时整体写出
+     * */
+    private static class Base64OutputStream extends FilterOutputStream {
+        private final byte[] alphabet;
+        private final boolean pad;
+        private final int lineLength;
+
+        private final byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+        private int position;
+        private int lineChars;
+
+        private int pending;
+        private int pendingCount;
+        private boolean closed;
+
+        Base64OutputStream(OutputStream out, byte[] alphabet, boolean pad, int lineLength) {
+            super(out);
+            this.alphabet = alphabet;
+            this.pad = pad;
+            this.lineLength = lineLength;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            ensureOpen();
+            pending = pending << 8 | (b & 0xFF);
+            if (++pendingCount == 3) {
+                putQuantum(pending);
+                pending = 0;
+                pendingCount = 0;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ensureOpen();
+            checkRange(b.length, off, len);
+
+            int end = off + len;
+            while (pendingCount != 0 && off < end) {
+                write(b[off++]);
+            }
+            for (int fullEnd = end - (end - off) % 3; off < fullEnd; off += 3) {
+                putQuantum((b[off] & 0xFF) << 16 | (b[off + 1] & 0xFF) << 8 | (b[off + 2] & 0xFF));
+            }
+            while (off < end) {
+                write(b[off++]);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            ensureOpen();
+            flushBuffer();
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            try {
+                if (pendingCount > 0) {
+                    ensureCapacity();
+                    int b0 = pendingCount == 1 ? pending : pending >>> 8;
+                    int b1 = pendingCount == 2 ? pending & 0xFF : 0;
+                    buffer[position++] = alphabet[b0 >>> 2];
+                    if (pendingCount == 1) {
+                        buffer[position++] = alphabet[b0 << 4 & 0x3F];
+                        if (pad) {
+                            buffer[position++] = '=';
+                            buffer[position++] = '=';
+                        }
+                    } else {
+                        buffer[position++] = alphabet[(b0 << 4 | b1 >>> 4) & 0x3F];
+                        buffer[position++] = alphabet[b1 << 2 & 0x3F];
+                        if (pad) {
+                            buffer[position++] = '=';
+                        }
+                    }
+                }
+                flushBuffer();
+            } finally {
+                closed = true;
+                out.close();
+            }
+        }
+
+        private void putQuantum(int bits) throws IOException {
+            ensureCapacity();
+            buffer[position++] = alphabet[bits >>> 18 & 0x3F];
+            buffer[position++] = alphabet[bits >>> 12 & 0x3F];
+            buffer[position++] = alphabet[bits >>> 6 & 0x3F];
+            buffer[position++] = alphabet[bits & 0x3F];
+            lineChars += 4;
+        }
+
+        /**
+         * 保证缓冲区还能放下一个换行加一组字符
+         * */
+        private void ensureCapacity() throws IOException {
+            if (buffer.length - position < 6) {
+                flushBuffer();
+            }
+            if (lineLength > 0 && lineChars == lineLength) {
+                buffer[position++] = '\r';
+                buffer[position++] = '\n';
+                lineChars = 0;
+            }
+        }
+
+        private void flushBuffer() throws IOException {
+            if (position > 0) {
+                out.write(buffer, 0, position);
+                position = 0;
+            }
+        }
+
+        private void ensureOpen() throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+        }
+    }
+
+    /**
+     * 流式Base64解码：批量读取编码字节，解码到内部缓冲区后再交给调用方
+     * */
+    private static class Base64InputStream extends FilterInputStream {
+        private final byte[] encoded = new byte[STREAM_BUFFER_SIZE];
+        private final byte[] decoded = new byte[STREAM_BUFFER_SIZE / 4 * 3 + 3];
+        private int position;
+        private int limit;
+
+        private int bits;
+        private int count;
+        private boolean eof;
+
+        Base64InputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            return decoded[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            checkRange(b.length, off, len);
+            if (len == 0) {
+                return 0;
+            }
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            int n = Math.min(len, limit - position);
+            System.arraycopy(decoded, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = 0;
+            while (skipped < n && (position < limit || fill())) {
+                int step = (int) Math.min(n - skipped, limit - position);
+                position += step;
+                skipped += step;
+            }
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return limit - position;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public synchronized void mark(int readlimit) {
+        }
+
+        @Override
+        public synchronized void reset() throws IOException {
+            throw new IOException("mark/reset not supported");
+        }
+
+        /**
+         * 读取并解码下一批数据，没有更多数据时返回false
+         * */
+        private boolean fill() throws IOException {
+            position = 0;
+            limit = 0;
+            while (limit == 0 && !eof) {
+                int n = in.read(encoded, 0, encoded.length);
+                if (n < 0) {
+                    eof = true;
+                    limit = putDecodedTail(bits, count, decoded, 0);
+                    count = 0;
+                    break;
+                }
+                for (int i = 0; i < n; i++) {
+                    int value = encoded[i] >= 0 ? BASE64_VALUES[encoded[i]] : -1;
+                    if (value >= 0) {
+                        bits = bits << 6 | value;
+                        if (++count == 4) {
+                            decoded[limit++] = (byte) (bits >> 16);
+                            decoded[limit++] = (byte) (bits >> 8);
+                            decoded[limit++] = (byte) bits;
+                            count = 0;
+                        }
+                    } else if (value == BASE64_PAD) {
+                        eof = true;
+                        limit = putDecodedTail(bits, count, decoded, limit);
+                        count = 0;
+                        break;
+                    }
+                }
+            }
+            return limit > 0;
         }
     }
-}
\ No newline at end of file
+}
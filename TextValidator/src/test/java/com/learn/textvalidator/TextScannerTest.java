@@ -0,0 +1,225 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.textvalidator;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/10/27 16:00
+ *
+ * TextScanner与TextValidator.PATTERN_*正则的等价性测试：
+ *  每条规则生成有效样本、对有效样本做随机替换/插入/删除得到的边界样本、以及规则相关字符组成的随机串，
+ *  比较scanner与正则的结果；种子固定，失败时可复现
+ */
+public class TextScannerTest {
+    private static final long SEED = 20191027L;
+    private static final int SAMPLES = 200000;
+
+    /**
+     * 各规则会用到的字符，外加空白、全角数字和非ASCII字母
+     * */
+    private static final String ALPHABET = "0123456789-+.@:/_aAzZxX \t\n０é";
+
+    private final Random random = new Random(SEED);
+
+    @Test
+    public void mobileSimple() {
+        assertEquivalent(TextValidator.PATTERN_REGEX_MOBILE_SIMPLE, TextScanner::isMobileSimple,
+            () -> "1" + digits(10));
+    }
+
+    @Test
+    public void mobileExact() {
+        String[] prefixes = {"130", "139", "145", "147", "150", "153", "155", "159", "170", "173", "175", "178", "180",
+            "189"};
+        assertEquivalent(TextValidator.PATTERN_REGEX_MOBILE_EXACT, TextScanner::isMobileExact,
+            () -> prefixes[random.nextInt(prefixes.length)] + digits(8));
+    }
+
+    @Test
+    public void tel() {
+        assertEquivalent(TextValidator.PATTERN_REGEX_TEL, TextScanner::isTel,
+            () -> digits(3 + random.nextInt(2)) + (random.nextBoolean() ? "-" : "") + digits(6 + random.nextInt(3)));
+    }
+
+    @Test
+    public void idCard15() {
+        assertEquivalent(TextValidator.PATTERN_REGEX_ID_CARD15, TextScanner::isIdCard15,
+            () -> (1 + random.nextInt(9)) + digits(7) + monthDay() + digits(3));
+    }
+
+    @Test
+    public void idCard18() {
+        assertEquivalent(TextValidator.PATTERN_REGEX_ID_CARD18, TextScanner::isIdCard18,
+            () -> (1 + random.nextInt(9)) + digits(5) + (1 + random.nextInt(9)) + digits(3) + monthDay() + digits(3)
+                + "0123456789Xx".charAt(random.nextInt(12)));
+    }
+
+    @Test
+    public void idCard() {
+        Pattern[] patterns = {TextValidator.PATTERN_REGEX_ID_CARD15, TextValidator.PATTERN_REGEX_ID_CARD18};
+        for (int i = 0; i < SAMPLES; i++) {
+            String input = i % 2 == 0 ? mutate(idCardSample()) : randomString(20);
+            boolean expected = patterns[0].matcher(input).matches() || patterns[1].matcher(input).matches();
+            assertEquals(input, expected, TextScanner.isIdCard(input));
+        }
+    }
+
+    @Test
+    public void email() {
+        assertEquivalent(TextValidator.PATTERN_REGEX_EMAIL, TextScanner::isEmail,
+            () -> words("-+.", 1 + random.nextInt(3)) + "@" + words("-.", 1 + random.nextInt(2)) + "."
+                + words("-.", 1 + random.nextInt(2)));
+    }
+
+    @Test
+    public void url() {
+        assertEquivalent(TextValidator.PATTERN_REGEX_URL, TextScanner::isUrl,
+            () -> (random.nextBoolean() ? "http" : "Ftp") + "://" + words("./:?=&-", random.nextInt(4)));
+    }
+
+    @Test
+    public void ipv4() {
+        assertEquivalent(TextValidator.PATTERN_REGEX_IPV4, TextScanner::isIpv4, () -> {
+            StringBuilder ip = new StringBuilder();
+            for (int i = 0; i < 4; i++) {
+                if (i > 0) {
+                    ip.append('.');
+                }
+                int value = random.nextInt(256);
+                ip.append(random.nextInt(4) == 0 ? String.format("%03d", value) : String.valueOf(value));
+            }
+            return ip.toString();
+        });
+    }
+
+    @Test
+    public void nullIsRejected() {
+        assertFalse(TextScanner.isMobileSimple(null));
+        assertFalse(TextScanner.isMobileExact(null));
+        assertFalse(TextScanner.isTel(null));
+        assertFalse(TextScanner.isIdCard(null));
+        assertFalse(TextScanner.isEmail(null));
+        assertFalse(TextScanner.isUrl(null));
+        assertFalse(TextScanner.isIpv4(null));
+    }
+
+    /**
+     * 有效样本本身须被正则接受，否则生成器有误，后续比较没有意义
+     * */
+    private void assertEquivalent(Pattern pattern, Predicate<CharSequence> scanner, Supplier<String> valid) {
+        int accepted = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            String input;
+            switch (i % 3) {
+                case 0:
+                    input = valid.get();
+                    assertTrue("Generator produced invalid sample: " + input, pattern.matcher(input).matches());
+                    break;
+                case 1:
+                    input = mutate(valid.get());
+                    break;
+                default:
+                    input = randomString(24);
+                    break;
+            }
+
+            boolean expected = pattern.matcher(input).matches();
+            assertEquals("[" + input + "] " + pattern.pattern(), expected, scanner.test(input));
+            assertEquals("StringBuilder [" + input + "]", expected, scanner.test(new StringBuilder(input)));
+            if (expected) {
+                accepted++;
+            }
+        }
+        assertTrue(accepted >= SAMPLES / 3);
+    }
+
+    /**
+     * 1至3次随机替换、插入或删除
+     * */
+    private String mutate(String input) {
+        StringBuilder sb = new StringBuilder(input);
+        for (int n = 1 + random.nextInt(3); n > 0; n--) {
+            char c = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            int op = random.nextInt(3);
+            if (op == 0 && sb.length() > 0) {
+                sb.setCharAt(random.nextInt(sb.length()), c);
+            } else if (op == 1 || sb.length() == 0) {
+                sb.insert(random.nextInt(sb.length() + 1), c);
+            } else {
+                sb.deleteCharAt(random.nextInt(sb.length()));
+            }
+        }
+        return sb.toString();
+    }
+
+    private String randomString(int maxLength) {
+        char[] chars = new char[random.nextInt(maxLength + 1)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+        }
+        return new String(chars);
+    }
+
+    private String digits(int count) {
+        char[] chars = new char[count];
+        for (int i = 0; i < count; i++) {
+            chars[i] = (char) ('0' + random.nextInt(10));
+        }
+        return new String(chars);
+    }
+
+    private String monthDay() {
+        return String.format("%02d%02d", random.nextInt(13), random.nextInt(32));
+    }
+
+    private String idCardSample() {
+        return random.nextBoolean()
+            ? (1 + random.nextInt(9)) + digits(7) + monthDay() + digits(3)
+            : (1 + random.nextInt(9)) + digits(5) + (1 + random.nextInt(9)) + digits(3) + monthDay() + digits(3) + "X";
+    }
+
+    /**
+     * 以separators中的单个字符连接的count个单词
+     * */
+    private String words(String separators, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(separators.charAt(random.nextInt(separators.length())));
+            }
+            for (int n = 1 + random.nextInt(5); n > 0; n--) {
+                sb.append("abcXYZ019_".charAt(random.nextInt(10)));
+            }
+        }
+        return sb.toString();
+    }
+}
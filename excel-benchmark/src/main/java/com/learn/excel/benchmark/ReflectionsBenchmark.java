@@ -0,0 +1,264 @@
+/*
+ * Copyright 2001-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.learn.excel.benchmark;
+
+import com.learn.excel.Reflections;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * <p> Title: </p>
+ *
+ * <p> Description: </p>
+ *
+ * @author: Guo Weifeng
+ * @version: 1.0
+ * @create: 2019/10/25 9:30
+ *
+ * Reflections各种属性访问方式的性能对比：
+ *  1. 直接调用getter（基准）
+ *  2. Reflections.invokeGetter / invokeMethodByName / getFieldValue（每次调用都查找Method/Field）
+ *  3. 缓存后的Method.invoke、MethodHandle、LambdaMetafactory生成的Function
+ *  每种方式都分单级属性（name）与多级属性（address.city）两组
+ *
+ * 运行：在excel目录执行 mvn install，然后在本目录执行 mvn package，
+ *  java -jar target/benchmarks.jar ReflectionsBenchmark -prof gc
+ *  或直接运行本类的main方法（已开启GC分配统计）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReflectionsBenchmark {
+
+    private static final MethodHandle MH_GET_NAME;
+    private static final MethodHandle MH_GET_ADDRESS;
+    private static final MethodHandle MH_GET_CITY;
+
+    private static final Function<Object, Object> LAMBDA_GET_NAME;
+    private static final Function<Object, Object> LAMBDA_GET_ADDRESS;
+    private static final Function<Object, Object> LAMBDA_GET_CITY;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MH_GET_NAME = lookup.findVirtual(Person.class, "getName", MethodType.methodType(String.class));
+            MH_GET_ADDRESS = lookup.findVirtual(Person.class, "getAddress", MethodType.methodType(Address.class));
+            MH_GET_CITY = lookup.findVirtual(Address.class, "getCity", MethodType.methodType(String.class));
+
+            LAMBDA_GET_NAME = toFunction(lookup, MH_GET_NAME);
+            LAMBDA_GET_ADDRESS = toFunction(lookup, MH_GET_ADDRESS);
+            LAMBDA_GET_CITY = toFunction(lookup, MH_GET_CITY);
+        } catch (Throwable e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private Person person;
+
+    private Method getName;
+    private Method getAddress;
+    private Method getCity;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        person = new Person("Guo Weifeng", new Address("Beijing"));
+
+        getName = Person.class.getMethod("getName");
+        getAddress = Person.class.getMethod("getAddress");
+        getCity = Address.class.getMethod("getCity");
+    }
+
+    /**
+     * 直接调用
+     * */
+    @Benchmark
+    public Object directSingle() {
+        return person.getName();
+    }
+
+    @Benchmark
+    public Object directMulti() {
+        return person.getAddress().getCity();
+    }
+
+    /**
+     * Reflections.invokeGetter
+     * */
+    @Benchmark
+    public Object invokeGetterSingle() {
+        return Reflections.invokeGetter(person, "name");
+    }
+
+    @Benchmark
+    public Object invokeGetterMulti() {
+        return Reflections.invokeGetter(person, "address.city");
+    }
+
+    /**
+     * Reflections.invokeMethodByName，多级时逐级调用
+     * */
+    @Benchmark
+    public Object invokeMethodByNameSingle() {
+        return Reflections.invokeMethodByName(person, "getName", new Object[]{});
+    }
+
+    @Benchmark
+    public Object invokeMethodByNameMulti() {
+        Object address = Reflections.invokeMethodByName(person, "getAddress", new Object[]{});
+        return Reflections.invokeMethodByName(address, "getCity", new Object[]{});
+    }
+
+    /**
+     * Reflections.getFieldValue，多级时逐级读取
+     * */
+    @Benchmark
+    public Object getFieldValueSingle() {
+        return Reflections.getFieldValue(person, "name");
+    }
+
+    @Benchmark
+    public Object getFieldValueMulti() {
+        return Reflections.getFieldValue(Reflections.getFieldValue(person, "address"), "city");
+    }
+
+    /**
+     * 缓存Method后调用Method.invoke
+     * */
+    @Benchmark
+    public Object methodInvokeSingle() throws Exception {
+        return getName.invoke(person);
+    }
+
+    @Benchmark
+    public Object methodInvokeMulti() throws Exception {
+        return getCity.invoke(getAddress.invoke(person));
+    }
+
+    /**
+     * static final的MethodHandle
+     * */
+    @Benchmark
+    public Object methodHandleSingle() throws Throwable {
+        return (String) MH_GET_NAME.invokeExact(person);
+    }
+
+    @Benchmark
+    public Object methodHandleMulti() throws Throwable {
+        return (String) MH_GET_CITY.invokeExact((Address) MH_GET_ADDRESS.invokeExact(person));
+    }
+
+    /**
+     * LambdaMetafactory生成的Function
+     * */
+    @Benchmark
+    public Object lambdaMetafactorySingle() {
+        return LAMBDA_GET_NAME.apply(person);
+    }
+
+    @Benchmark
+    public Object lambdaMetafactoryMulti() {
+        return LAMBDA_GET_CITY.apply(LAMBDA_GET_ADDRESS.apply(person));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> toFunction(MethodHandles.Lookup lookup, MethodHandle getter)
+        throws Throwable {
+        CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+            MethodType.methodType(Function.class),
+            MethodType.methodType(Object.class, Object.class),
+            getter,
+            getter.type());
+        return (Function<Object, Object>) site.getTarget().invokeExact();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(ReflectionsBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * 测试实体
+     * */
+    public static class Person {
+        private String name;
+        private Address address;
+
+        public Person(String name, Address address) {
+            this.name = name;
+            this.address = address;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Address getAddress() {
+            return address;
+        }
+
+        public void setAddress(Address address) {
+            this.address = address;
+        }
+    }
+
+    public static class Address {
+        private String city;
+
+        public Address(String city) {
+            this.city = city;
+        }
+
+        public String getCity() {
+            return city;
+        }
+
+        public void setCity(String city) {
+            this.city = city;
+        }
+    }
+}
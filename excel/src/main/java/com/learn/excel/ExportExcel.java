@@ -410,7 +410,7 @@ public class ExportExcel {
     public ExportExcel write(HttpServletResponse response, String fileName) throws IOException {
         response.reset();
         response.setContentType("application/octet-stream;charset=utf-8");
-        response.setHeader("Content-Disposition", "attachment; filename=" + Encodes.urlEncode(fileName));
+        response.setHeader("Content-Disposition", "attachment; " + Encodes.contentDispositionFileName(fileName));
         write(response.getOutputStream());
         return this;
     }